@@ -29,9 +29,11 @@ import { fetchUtils, DataProvider } from "ra-core";
  * @remarks
  * **API Requirements:**
  * - GET endpoints must return X-Total-Count header for pagination
+ * - Resources using partial pagination return X-Has-Next-Page instead, and getList then
+ *   resolves with `pageInfo` ({ hasNextPage, hasPreviousPage }) instead of `total`
  * - List queries use _start, _end, _sort, _order query parameters
  * - Bulk operations (updateMany, deleteMany) use multiple id query parameters
- * - CORS must expose the X-Total-Count header
+ * - CORS must expose the X-Total-Count header (and X-Has-Next-Page for partial pagination)
  *
  * **Supported Operations:**
  * - `getList`: GET /resource?_start=0&_end=10&_sort=id&_order=ASC
@@ -39,6 +41,7 @@ import { fetchUtils, DataProvider } from "ra-core";
  * - `getMany`: GET /resource/many?id=123&id=456&id=789
  * - `getManyReference`: GET /resource/of/{target}/{id}?_start=0&_end=10
  * - `create`: POST /resource with JSON body
+ * - `createMany`: POST /resource/createMany with a JSON array body (bulk create, custom method)
  * - `update`: PUT /resource/123 with JSON body
  * - `updateMany`: PUT /resource?id=123&id=456 with JSON body (bulk update)
  * - `delete`: DELETE /resource/123
@@ -54,6 +57,12 @@ import { fetchUtils, DataProvider } from "ra-core";
  * ```tsx
  * useGetOne('posts', { id: 1, meta: { embed: 'author' } })
  * ```
+ *
+ * **Sparse Fieldsets:**
+ * Use the `meta.fields` parameter of getList to fetch only some fields (the id is always returned):
+ * ```tsx
+ * useGetList('posts', { meta: { fields: ['title', 'status'] } })
+ * ```
  */
 export default (
   apiUrl: string,
@@ -70,12 +79,25 @@ export default (
         page != null && perPage != null ? (page - 1) * perPage : undefined,
       _end: page != null && perPage != null ? page * perPage : undefined,
       _embed: params?.meta?.embed,
+      _fields: Array.isArray(params?.meta?.fields)
+        ? params.meta.fields.join(",")
+        : params?.meta?.fields,
     };
     const url = `${apiUrl}/${resource}?${queryString.stringify(query)}`;
 
     const { headers, json } = await httpClient(url, {
       signal: params?.signal,
     });
+    // Partial pagination: the server reports whether a next page exists instead of a total
+    if (!headers.has("x-total-count") && headers.has("x-has-next-page")) {
+      return {
+        data: json,
+        pageInfo: {
+          hasNextPage: headers.get("x-has-next-page") === "true",
+          hasPreviousPage: page != null && page > 1,
+        },
+      };
+    }
     if (!headers.has("x-total-count")) {
       throw new Error(
         "The X-Total-Count header is missing in the HTTP Response. The jsonServer Data Provider expects responses for lists of resources to contain this header with the total number of results to build the pagination. If you are using CORS, did you declare X-Total-Count in the Access-Control-Expose-Headers header?",
@@ -169,6 +191,15 @@ export default (
     return { data: { ...params.data, ...json } as any };
   },
 
+  // Spring Boot bulk create: POST /resource/createMany with the records in body, returned in the same order
+  createMany: async (resource: string, params: { data: any[] }) => {
+    const { json } = await httpClient(`${apiUrl}/${resource}/createMany`, {
+      method: "POST",
+      body: JSON.stringify(params.data),
+    });
+    return { data: json };
+  },
+
   delete: async (resource, params) => {
     const { json } = await httpClient(`${apiUrl}/${resource}/${params.id}`, {
       method: "DELETE",
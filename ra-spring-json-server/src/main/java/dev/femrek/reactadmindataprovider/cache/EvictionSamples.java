@@ -0,0 +1,58 @@
+package dev.femrek.reactadmindataprovider.cache;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Draws the entries the caches compare to pick an eviction victim.
+ * <p>
+ * The iteration order of a {@link ConcurrentHashMap} is fixed by the hashes of its keys, so sampling the first entries
+ * would always weigh the same few keys against each other and never look at the others. Instead, the sample is taken
+ * from a random region of the table, reached by splitting the spliterator of the map into random halves: each split
+ * takes constant time, so a region is reached in a logarithmic number of steps.
+ */
+final class EvictionSamples {
+    private EvictionSamples() {
+    }
+
+    /**
+     * Returns up to {@code size} consecutive entries of a random region of the map.
+     *
+     * @param entries the entries of the cache
+     * @param size    the sample size
+     * @param <K>     the key type
+     * @param <V>     the value type
+     * @return the sampled entries; empty only if the map is
+     */
+    static <K, V> List<Map.Entry<K, V>> sample(ConcurrentHashMap<K, V> entries, int size) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Spliterator<Map.Entry<K, V>> region = entries.entrySet().spliterator();
+        while (region.estimateSize() > size) {
+            Spliterator<Map.Entry<K, V>> half = region.trySplit();
+            if (half == null) {
+                break;
+            }
+            if (random.nextBoolean()) {
+                region = half;
+            }
+        }
+
+        List<Map.Entry<K, V>> sample = new ArrayList<>(size);
+        while (sample.size() < size && region.tryAdvance(sample::add)) {
+            // Collects the entries of the region
+        }
+        if (sample.isEmpty()) {
+            // The region only had empty buckets: fall back to the first entries
+            Iterator<Map.Entry<K, V>> iterator = entries.entrySet().iterator();
+            while (sample.size() < size && iterator.hasNext()) {
+                sample.add(iterator.next());
+            }
+        }
+        return sample;
+    }
+}
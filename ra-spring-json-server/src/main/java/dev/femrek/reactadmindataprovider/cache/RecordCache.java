@@ -0,0 +1,245 @@
+package dev.femrek.reactadmindataprovider.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, time-limited cache of the records of a resource, keyed by id.
+ * <p>
+ * The controller reads getOne and getMany through it: hits are served without calling the service, and misses are
+ * loaded by {@link dev.femrek.reactadmindataprovider.service.IRAService#findById} or, for getMany, by a single
+ * {@link dev.femrek.reactadmindataprovider.service.IRAService#findAllById} of the missing ids, and kept for
+ * {@code ttl}. The writes of the
+ * controller ({@code update}, {@code updateMany}, {@code delete} and {@code deleteMany}) invalidate the ids they touch.
+ * Writes that bypass the controller are only seen once the entries expire.
+ * <p>
+ * When the cache is full, the least frequently read of a few randomly sampled entries is evicted, so records read
+ * again and again stay cached while one-off reads make room. Read counts are halved as entries are sampled, so that
+ * records which stop being read eventually lose their place.
+ * <p>
+ * Cached records are shared between requests and must not be modified. An instance keeps state between requests:
+ * create one per resource and return the same instance from
+ * {@link dev.femrek.reactadmindataprovider.controller.RAController#getRecordCache()}.
+ *
+ * @param <T> the Response DTO type
+ */
+public final class RecordCache<T> {
+    private static final int EVICTION_SAMPLE_SIZE = 8;
+    private static final RecordCache<?> DISABLED = new RecordCache<>(1, Duration.ZERO);
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final ConcurrentHashMap<Object, Entry<T>> entries = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private RecordCache(int maxSize, Duration ttl) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * @param <T> the Response DTO type
+     * @return a cache that never keeps any record
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> RecordCache<T> disabled() {
+        return (RecordCache<T>) DISABLED;
+    }
+
+    /**
+     * Returns a cache keeping up to the given number of records for the given duration.
+     *
+     * @param maxSize the maximum number of records
+     * @param ttl     how long a record is served after being loaded
+     * @param <T>     the Response DTO type
+     * @return the cache
+     * @throws IllegalArgumentException if maxSize is not positive or ttl is not positive
+     */
+    public static <T> RecordCache<T> of(int maxSize, Duration ttl) {
+        Objects.requireNonNull(ttl, "ttl");
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be at least 1.");
+        }
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl must be positive.");
+        }
+        return new RecordCache<>(maxSize, ttl);
+    }
+
+    /**
+     * @return whether records are ever cached
+     */
+    public boolean isEnabled() {
+        return this != DISABLED;
+    }
+
+    /**
+     * @return the maximum number of records
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return the number of cached records, including the expired ones not removed yet
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the cached record of an id.
+     *
+     * @param id the id of the record
+     * @return the record, or null if it is not cached or has expired
+     */
+    public T get(Object id) {
+        Entry<T> entry = entries.get(id);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.loadedAt >= ttlNanos) {
+            entries.remove(id, entry);
+            return null;
+        }
+        // Racy increments only make the count approximate, which is enough to rank the entries
+        entry.reads++;
+        return entry.record;
+    }
+
+    /**
+     * Returns the cached record of an id if it was cached at the given version.
+     * <p>
+     * Used to answer conditional requests, whose entity tag is computed from the current version: a record cached at
+     * another version, or without one, must be loaded again.
+     *
+     * @param id      the id of the record
+     * @param version the current version of the record
+     * @return the record, or null if it is not cached at that version or has expired
+     */
+    public T get(Object id, Object version) {
+        Entry<T> entry = entries.get(id);
+        if (entry == null || entry.version == null || !entry.version.equals(version)) {
+            return null;
+        }
+        return get(id);
+    }
+
+    /**
+     * Returns the stamp to pass to {@link #put} for a record loaded from now on. Take it before loading the record, so
+     * that a record loaded concurrently with a write is not cached after the write invalidated it.
+     *
+     * @return the current stamp
+     */
+    public long stamp() {
+        return invalidations.get();
+    }
+
+    /**
+     * Caches a loaded record, unless a record was invalidated since the stamp was taken.
+     *
+     * @param id     the id of the record
+     * @param record the record; null is not cached
+     * @param stamp  the stamp taken by {@link #stamp()} before loading the record
+     */
+    public void put(Object id, T record, long stamp) {
+        put(id, record, null, stamp);
+    }
+
+    /**
+     * Caches a record loaded at a known version, unless a record was invalidated since the stamp was taken.
+     *
+     * @param id      the id of the record
+     * @param record  the record; null is not cached
+     * @param version the version read before loading the record, or null if it is unknown
+     * @param stamp   the stamp taken by {@link #stamp()} before loading the record
+     */
+    public void put(Object id, T record, Object version, long stamp) {
+        if (!isEnabled() || id == null || record == null || invalidations.get() != stamp) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (!entries.containsKey(id) && entries.size() >= maxSize) {
+            evict(now);
+        }
+        entries.put(id, new Entry<>(record, version, now));
+        // A write may have started while the record was being cached
+        if (invalidations.get() != stamp) {
+            entries.remove(id);
+        }
+    }
+
+    /**
+     * Removes the record of an id.
+     *
+     * @param id the id of the record
+     */
+    public void invalidate(Object id) {
+        invalidations.incrementAndGet();
+        if (id != null) {
+            entries.remove(id);
+        }
+    }
+
+    /**
+     * Removes the records of the given ids.
+     *
+     * @param ids the ids of the records
+     */
+    public void invalidateAll(Iterable<?> ids) {
+        invalidations.incrementAndGet();
+        for (Object id : ids) {
+            if (id != null) {
+                entries.remove(id);
+            }
+        }
+    }
+
+    /**
+     * Removes every record.
+     */
+    public void clear() {
+        invalidations.incrementAndGet();
+        entries.clear();
+    }
+
+    /**
+     * Makes room for one entry: removes the first expired entry of a sample, or else its least read entry.
+     */
+    private void evict(long now) {
+        Object victim = null;
+        int fewestReads = Integer.MAX_VALUE;
+        for (Map.Entry<Object, Entry<T>> candidate : EvictionSamples.sample(entries, EVICTION_SAMPLE_SIZE)) {
+            Entry<T> entry = candidate.getValue();
+            if (now - entry.loadedAt >= ttlNanos) {
+                victim = candidate.getKey();
+                break;
+            }
+            int reads = entry.reads;
+            if (reads < fewestReads) {
+                fewestReads = reads;
+                victim = candidate.getKey();
+            }
+            entry.reads = reads >>> 1;
+        }
+        if (victim != null) {
+            entries.remove(victim);
+        }
+    }
+
+    private static final class Entry<T> {
+        private final T record;
+        private final Object version;
+        private final long loadedAt;
+        private volatile int reads;
+
+        private Entry(T record, Object version, long loadedAt) {
+            this.record = record;
+            this.version = version;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
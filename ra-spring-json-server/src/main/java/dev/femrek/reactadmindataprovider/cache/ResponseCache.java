@@ -0,0 +1,296 @@
+package dev.femrek.reactadmindataprovider.cache;
+
+import org.springframework.http.HttpHeaders;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, time-limited cache of serialized getList responses of a resource, keyed by their normalized query.
+ * <p>
+ * The headers and the JSON body of every response, such as the <code>X-Total-Count</code> and the rows of the window,
+ * are kept in a direct {@link ByteBuffer}, outside the heap. The controller returns the bytes of a hit as the response
+ * body: the service is not called and nothing is serialized. Any write of the controller to the resource ({@code create},
+ * {@code createMany}, {@code update}, {@code updateMany}, {@code delete} and {@code deleteMany}) clears the cache, since
+ * it may change any window. Writes that bypass the controller are only seen once the responses expire.
+ * <p>
+ * When the cache exceeds its entry or byte bound, the least frequently read of a few randomly sampled responses is
+ * evicted. The direct buffers count against {@code -XX:MaxDirectMemorySize} and are released once evicted responses
+ * are collected.
+ * <p>
+ * An instance keeps state between requests: create one per resource and return the same instance from
+ * {@link dev.femrek.reactadmindataprovider.controller.RAController#getResponseCache()}.
+ */
+public final class ResponseCache {
+    private static final int EVICTION_SAMPLE_SIZE = 8;
+    private static final ResponseCache DISABLED = new ResponseCache(1, 0, Duration.ZERO);
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final long ttlNanos;
+    private final ConcurrentHashMap<Object, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong usedBytes = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private ResponseCache(int maxEntries, long maxBytes, Duration ttl) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * @return a cache that never keeps any response
+     */
+    public static ResponseCache disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Returns a cache keeping up to the given number of responses, of up to the given total size, for the given
+     * duration.
+     *
+     * @param maxEntries the maximum number of responses
+     * @param maxBytes   the maximum total size of the responses, in bytes
+     * @param ttl        how long a response is served after being cached
+     * @return the cache
+     * @throws IllegalArgumentException if maxEntries, maxBytes or ttl is not positive
+     */
+    public static ResponseCache of(int maxEntries, long maxBytes, Duration ttl) {
+        Objects.requireNonNull(ttl, "ttl");
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1.");
+        }
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("maxBytes must be at least 1.");
+        }
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl must be positive.");
+        }
+        return new ResponseCache(maxEntries, maxBytes, ttl);
+    }
+
+    /**
+     * @return whether responses are ever cached
+     */
+    public boolean isEnabled() {
+        return this != DISABLED;
+    }
+
+    /**
+     * @return the number of cached responses, including the expired ones not removed yet
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the total size of the cached responses, in bytes
+     */
+    public long getUsedBytes() {
+        return usedBytes.get();
+    }
+
+    /**
+     * Returns the cached response of a query.
+     *
+     * @param key the normalized query
+     * @return the response, or null if it is not cached or has expired
+     */
+    public CachedResponse get(Object key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.cachedAt >= ttlNanos) {
+            remove(key, entry);
+            return null;
+        }
+        // Racy increments only make the count approximate, which is enough to rank the entries
+        entry.reads++;
+        return entry.decode();
+    }
+
+    /**
+     * Returns the stamp to pass to {@link #put} for a response computed from now on. Take it before calling the
+     * service, so that a response computed concurrently with a write is not cached after the write cleared the cache.
+     *
+     * @return the current stamp
+     */
+    public long stamp() {
+        return invalidations.get();
+    }
+
+    /**
+     * Caches a response, unless the cache was cleared since the stamp was taken or the response alone exceeds the byte
+     * bound.
+     *
+     * @param key     the normalized query
+     * @param headers the headers of the response
+     * @param body    the JSON body of the response
+     * @param stamp   the stamp taken by {@link #stamp()} before calling the service
+     */
+    public void put(Object key, HttpHeaders headers, byte[] body, long stamp) {
+        if (!isEnabled() || key == null || invalidations.get() != stamp) {
+            return;
+        }
+        Entry entry = Entry.encode(headers, body);
+        int capacity = entry.buffer.capacity();
+        if (capacity > maxBytes) {
+            return;
+        }
+        makeRoom(capacity, System.nanoTime());
+        Entry previous = entries.put(key, entry);
+        usedBytes.addAndGet(capacity - (previous != null ? previous.buffer.capacity() : 0));
+        // A write may have started while the response was being cached
+        if (invalidations.get() != stamp) {
+            remove(key, entry);
+        }
+    }
+
+    /**
+     * Removes every response.
+     */
+    public void clear() {
+        invalidations.incrementAndGet();
+        for (Map.Entry<Object, Entry> entry : entries.entrySet()) {
+            remove(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void remove(Object key, Entry entry) {
+        if (entries.remove(key, entry)) {
+            usedBytes.addAndGet(-entry.buffer.capacity());
+        }
+    }
+
+    /**
+     * Evicts entries until a response of the given size fits within the bounds.
+     */
+    private void makeRoom(int capacity, long now) {
+        while (entries.size() >= maxEntries || usedBytes.get() + capacity > maxBytes) {
+            if (!evict(now)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Removes the first expired entry of a sample, or else its least read entry.
+     *
+     * @return whether an entry was removed
+     */
+    private boolean evict(long now) {
+        Object victimKey = null;
+        Entry victim = null;
+        int fewestReads = Integer.MAX_VALUE;
+        for (Map.Entry<Object, Entry> candidate : EvictionSamples.sample(entries, EVICTION_SAMPLE_SIZE)) {
+            Entry entry = candidate.getValue();
+            if (now - entry.cachedAt >= ttlNanos) {
+                victimKey = candidate.getKey();
+                victim = entry;
+                break;
+            }
+            int reads = entry.reads;
+            if (reads < fewestReads) {
+                fewestReads = reads;
+                victimKey = candidate.getKey();
+                victim = entry;
+            }
+            entry.reads = reads >>> 1;
+        }
+        if (victim == null) {
+            return false;
+        }
+        remove(victimKey, victim);
+        return true;
+    }
+
+    /**
+     * A cached response: its headers and a read-only view of its JSON body.
+     */
+    public static final class CachedResponse {
+        private final HttpHeaders headers;
+        private final ByteBuffer body;
+
+        private CachedResponse(HttpHeaders headers, ByteBuffer body) {
+            this.headers = headers;
+            this.body = body;
+        }
+
+        /**
+         * @return the headers of the response
+         */
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        /**
+         * @return the JSON body of the response, positioned at its first byte; a new view on every call
+         */
+        public ByteBuffer getBody() {
+            return body.duplicate();
+        }
+    }
+
+    /**
+     * A direct buffer holding the header count, each header name and value as a length-prefixed UTF-8 string, and
+     * then the body.
+     */
+    private static final class Entry {
+        private final ByteBuffer buffer;
+        private final int bodyOffset;
+        private final long cachedAt;
+        private volatile int reads;
+
+        private Entry(ByteBuffer buffer, int bodyOffset, long cachedAt) {
+            this.buffer = buffer;
+            this.bodyOffset = bodyOffset;
+            this.cachedAt = cachedAt;
+        }
+
+        private static Entry encode(HttpHeaders headers, byte[] body) {
+            List<byte[]> strings = new ArrayList<>();
+            headers.forEach((name, values) -> {
+                for (String value : values) {
+                    strings.add(name.getBytes(StandardCharsets.UTF_8));
+                    strings.add(value.getBytes(StandardCharsets.UTF_8));
+                }
+            });
+            int bodyOffset = Integer.BYTES;
+            for (byte[] string : strings) {
+                bodyOffset += Integer.BYTES + string.length;
+            }
+            ByteBuffer buffer = ByteBuffer.allocateDirect(bodyOffset + body.length);
+            buffer.putInt(strings.size() / 2);
+            for (byte[] string : strings) {
+                buffer.putInt(string.length).put(string);
+            }
+            buffer.put(body).flip();
+            return new Entry(buffer.asReadOnlyBuffer(), bodyOffset, System.nanoTime());
+        }
+
+        private CachedResponse decode() {
+            ByteBuffer view = buffer.duplicate();
+            HttpHeaders headers = new HttpHeaders();
+            int headerCount = view.getInt();
+            for (int i = 0; i < headerCount; i++) {
+                headers.add(readString(view), readString(view));
+            }
+            view.position(bodyOffset);
+            return new CachedResponse(headers, view.slice());
+        }
+
+        private static String readString(ByteBuffer view) {
+            byte[] bytes = new byte[view.getInt()];
+            view.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
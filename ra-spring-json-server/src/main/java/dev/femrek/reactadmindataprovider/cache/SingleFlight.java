@@ -0,0 +1,122 @@
+package dev.femrek.reactadmindataprovider.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical concurrent calls: while a call for a key is in flight, the other calls for the same key wait for
+ * it and share its result, or its exception, instead of running again.
+ * <p>
+ * The controller runs the queries of getList through it, keyed by their normalized query (filters, sort, window and
+ * fields), so that a dashboard opened by many users at once runs each count and page query once. Nothing is kept once a
+ * call completes: requests arriving afterwards run their own call. A call that is not a duplicate only costs an insert
+ * into and a removal from a concurrent map. The writes of the controller detach the calls in flight, so that requests
+ * arriving after a write do not share a result read before it.
+ * <p>
+ * An instance keeps state between requests: create one per resource and return the same instance from
+ * {@link dev.femrek.reactadmindataprovider.controller.RAController#getSingleFlight()}.
+ */
+public final class SingleFlight {
+    private static final SingleFlight DISABLED = new SingleFlight();
+
+    private final ConcurrentHashMap<Object, CompletableFuture<Object>> calls = new ConcurrentHashMap<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private SingleFlight() {
+    }
+
+    /**
+     * @return an instance that never coalesces calls
+     */
+    public static SingleFlight disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * @return an instance coalescing the concurrent calls with equal keys
+     */
+    public static SingleFlight create() {
+        return new SingleFlight();
+    }
+
+    /**
+     * @return whether calls are ever coalesced
+     */
+    public boolean isEnabled() {
+        return this != DISABLED;
+    }
+
+    /**
+     * @return the number of calls in flight
+     */
+    public int size() {
+        return calls.size();
+    }
+
+    /**
+     * @return the number of calls waiting for a call in flight
+     */
+    public int waiting() {
+        return waiting.get();
+    }
+
+    /**
+     * Runs a call, or waits for the call in flight with an equal key and returns its result.
+     *
+     * @param key  the key of the call; calls with equal keys must return the same type
+     * @param call the call
+     * @param <V>  the result type
+     * @return the result of the call
+     * @throws RuntimeException the exception of the call, also thrown to the calls that waited for it
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V execute(Object key, Supplier<V> call) {
+        if (!isEnabled() || key == null) {
+            return call.get();
+        }
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = calls.putIfAbsent(key, flight);
+        if (inFlight != null) {
+            waiting.incrementAndGet();
+            try {
+                return (V) await(inFlight);
+            } finally {
+                waiting.decrementAndGet();
+            }
+        }
+        try {
+            V result = call.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            calls.remove(key, flight);
+        }
+    }
+
+    /**
+     * Detaches the calls in flight: they complete as usual, but later calls no longer wait for them.
+     */
+    public void clear() {
+        calls.clear();
+    }
+
+    private static Object await(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
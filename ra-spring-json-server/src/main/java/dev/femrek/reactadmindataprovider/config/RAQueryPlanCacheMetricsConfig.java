@@ -0,0 +1,23 @@
+package dev.femrek.reactadmindataprovider.config;
+
+import dev.femrek.reactadmindataprovider.jpa.QueryPlanCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Configuration class that publishes the query plan cache statistics of Hibernate as Micrometer meters, when Micrometer
+ * is on the classpath.
+ *
+ * @see QueryPlanCacheMetrics
+ */
+@AutoConfiguration
+@ConditionalOnClass(name = "io.micrometer.core.instrument.binder.MeterBinder")
+public class RAQueryPlanCacheMetricsConfig {
+    @Bean
+    public QueryPlanCacheMetrics queryPlanCacheMetrics(ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        return new QueryPlanCacheMetrics(entityManagerFactory);
+    }
+}
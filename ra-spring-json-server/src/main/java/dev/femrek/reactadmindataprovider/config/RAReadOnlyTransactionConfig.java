@@ -0,0 +1,39 @@
+package dev.femrek.reactadmindataprovider.config;
+
+import dev.femrek.reactadmindataprovider.jpa.ReadHints;
+import dev.femrek.reactadmindataprovider.jpa.ReadOnlyDataSourcePostProcessor;
+import dev.femrek.reactadmindataprovider.service.ReadOnlyTransactionAdvisor;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.env.Environment;
+
+/**
+ * Configuration class that runs the read methods of the RA services within read-only transactions.
+ * <p>
+ * Disabled by {@code ra.read-only.enabled=false}. The JDBC fetch size of the read queries is set by
+ * {@code ra.read-only.fetch-size}, by default the one of the driver.
+ *
+ * @see ReadOnlyTransactionAdvisor
+ * @see ReadOnlyDataSourcePostProcessor
+ */
+@AutoConfiguration
+@ConditionalOnProperty(prefix = "ra.read-only", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RAReadOnlyTransactionConfig {
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    @ConditionalOnMissingBean
+    public static ReadOnlyTransactionAdvisor readOnlyTransactionAdvisor(Environment environment) {
+        int fetchSize = environment.getProperty("ra.read-only.fetch-size", Integer.class, 0);
+        return new ReadOnlyTransactionAdvisor(new ReadHints(fetchSize));
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static ReadOnlyDataSourcePostProcessor readOnlyDataSourcePostProcessor() {
+        return new ReadOnlyDataSourcePostProcessor();
+    }
+}
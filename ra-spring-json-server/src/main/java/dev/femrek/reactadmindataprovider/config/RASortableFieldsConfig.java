@@ -0,0 +1,22 @@
+package dev.femrek.reactadmindataprovider.config;
+
+import dev.femrek.reactadmindataprovider.controller.SortableFieldsValidator;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Configuration class that validates the sortable fields of the RA controllers at startup.
+ *
+ * @see dev.femrek.reactadmindataprovider.sort.SortableFields
+ */
+@AutoConfiguration
+public class RASortableFieldsConfig {
+    @Bean
+    public SortableFieldsValidator sortableFieldsValidator(ListableBeanFactory beanFactory,
+                                                           ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        return new SortableFieldsValidator(beanFactory, entityManagerFactory);
+    }
+}
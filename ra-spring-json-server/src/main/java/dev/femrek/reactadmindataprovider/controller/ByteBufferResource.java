@@ -0,0 +1,66 @@
+package dev.femrek.reactadmindataprovider.controller;
+
+import org.springframework.core.io.AbstractResource;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Exposes the bytes of a buffer, such as a response body kept off the heap by
+ * {@link dev.femrek.reactadmindataprovider.cache.ResponseCache}, as a {@link org.springframework.core.io.Resource}, so
+ * that Spring MVC writes them with its message converters without copying them to the heap first.
+ */
+final class ByteBufferResource extends AbstractResource {
+    private final ByteBuffer buffer;
+
+    /**
+     * @param buffer the bytes, from its position to its limit; it is not modified
+     */
+    ByteBufferResource(ByteBuffer buffer) {
+        this.buffer = buffer.asReadOnlyBuffer();
+    }
+
+    @Override
+    public boolean exists() {
+        return true;
+    }
+
+    @Override
+    public long contentLength() {
+        return buffer.remaining();
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        ByteBuffer view = buffer.duplicate();
+        return new InputStream() {
+            @Override
+            public int read() {
+                return view.hasRemaining() ? view.get() & 0xFF : -1;
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int length) {
+                if (length == 0) {
+                    return 0;
+                }
+                if (!view.hasRemaining()) {
+                    return -1;
+                }
+                int count = Math.min(length, view.remaining());
+                view.get(bytes, offset, count);
+                return count;
+            }
+
+            @Override
+            public int available() {
+                return view.remaining();
+            }
+        };
+    }
+
+    @Override
+    public String getDescription() {
+        return "Byte buffer resource [" + buffer.remaining() + " bytes]";
+    }
+}
@@ -0,0 +1,116 @@
+package dev.femrek.reactadmindataprovider.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Computes the strong entity tags of the responses of {@link RAController} and matches them against
+ * <code>If-None-Match</code>.
+ */
+final class ETags {
+    private ETags() {
+    }
+
+    /**
+     * Returns the entity tag of a record from its version, which changes with every update of the record.
+     *
+     * @param id      the id of the record
+     * @param version the version of the record
+     * @return the quoted entity tag
+     */
+    static String ofVersion(Object id, Object version) {
+        return quote("v-" + digest((id + "\n" + version).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Returns the entity tag of a response from the hash of its JSON body and of the headers describing it, such as
+     * <code>X-Total-Count</code>.
+     *
+     * @param body         the response body
+     * @param headerValues the values of the headers describing the body
+     * @return the quoted entity tag, or null if the body cannot be serialized
+     */
+    static String ofBody(Object body, String... headerValues) {
+        byte[] json = JsonBodies.write(body);
+        return json != null ? ofJson(json, headerValues) : null;
+    }
+
+    /**
+     * Returns the entity tag of a response from the hash of its serialized JSON body and of the headers describing it.
+     *
+     * @param json         the serialized response body
+     * @param headerValues the values of the headers describing the body
+     * @return the quoted entity tag
+     */
+    static String ofJson(byte[] json, String... headerValues) {
+        MessageDigest md5 = md5();
+        md5.update(json);
+        for (String headerValue : headerValues) {
+            md5.update((byte) '\n');
+            md5.update(String.valueOf(headerValue).getBytes(StandardCharsets.UTF_8));
+        }
+        return quote(HexFormat.of().formatHex(md5.digest()));
+    }
+
+    /**
+     * @return the <code>If-None-Match</code> header of the current request, or null if there is none
+     */
+    static String ifNoneMatch() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            return servletAttributes.getRequest().getHeader(HttpHeaders.IF_NONE_MATCH);
+        }
+        return null;
+    }
+
+    /**
+     * Matches an entity tag against an <code>If-None-Match</code> header, with the weak comparison the header calls
+     * for.
+     *
+     * @param ifNoneMatch the header value, possibly null
+     * @param eTag        the quoted entity tag of the current representation
+     * @return whether the client already has the current representation
+     */
+    static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || eTag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String digest(byte[] bytes) {
+        return HexFormat.of().formatHex(md5().digest(bytes));
+    }
+
+    private static MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        }
+    }
+
+    private static String quote(String tag) {
+        return "\"" + tag + "\"";
+    }
+
+}
@@ -29,7 +29,9 @@ public interface IRAController<T, C, ID> {
      *
      * <p>This method returns a subset of entities based on the pagination parameters (_start and _end).
      * The results can be sorted by any field in ascending or descending order. Custom filters can be
-     * applied through additional query parameters passed in allParams.</p>
+     * applied through additional query parameters passed in allParams. A filter name may carry a json-server style
+     * operator suffix: <code>_ne</code>, <code>_gte</code>, <code>_lte</code>, <code>_like</code> or <code>_in</code>
+     * (comma-separated values).</p>
      *
      * <p><b>Example request:</b></p>
      * <pre>GET /api/posts?_start=0&amp;_end=10&amp;_sort=title&amp;_order=ASC&amp;status=published</pre>
@@ -44,12 +46,33 @@ public interface IRAController<T, C, ID> {
      *   <li><code>Access-Control-Expose-Headers</code>: Must include "X-Total-Count"</li>
      * </ul>
      *
+     * <p><b>Keyset pagination:</b> when the optional <code>_after</code> parameter is present, the list is paged
+     * with a cursor instead of an offset. Send an empty <code>_after</code> for the first window and the value of the
+     * <code>X-Next-Cursor</code> response header for the following ones; the window size is
+     * <code>_end - _start</code>. No <code>X-Total-Count</code> is computed in this mode and
+     * <code>X-Next-Cursor</code> is omitted on the last window.</p>
+     * <pre>GET /api/posts?_start=0&amp;_end=50&amp;_sort=createdAt&amp;_order=DESC&amp;_after=</pre>
+     *
+     * <p><b>Partial pagination:</b> resources that opt into partial pagination return an
+     * <code>X-Has-Next-Page</code> header (<code>true</code> or <code>false</code>) instead of
+     * <code>X-Total-Count</code>.</p>
+     *
+     * <p><b>Sparse fieldsets:</b> the optional <code>_fields</code> parameter lists the fields to return, separated
+     * by commas. The <code>id</code> is always returned. Services that support it select only these columns; the
+     * others are left out or null. Keyset pagination ignores it.</p>
+     * <pre>GET /api/posts?_start=0&amp;_end=10&amp;_fields=title,status</pre>
+     *
+     * <p><b>Window limits:</b> resources may bound the window size. A larger window is either rejected with
+     * <code>400 Bad Request</code> or clamped, in which case the <code>X-Window-Limit</code> header carries the
+     * number of rows actually requested from the service.</p>
+     *
      * @param _start    the starting index for pagination (0-based, inclusive)
      * @param _end      the ending index for pagination (0-based, exclusive)
      * @param _sort     the field name to sort by (default: "id")
      * @param _order    the sort direction, either "ASC" or "DESC" (default: "ASC")
      * @param _embed    optional parameter to embed related resources (implementation-specific)
-     * @param allParams map containing all query parameters, including custom filters
+     * @param allParams map containing all query parameters, including custom filters and the optional
+     *                  <code>_after</code> cursor and <code>_fields</code> list
      * @return ResponseEntity containing a list of entities for the requested page with X-Total-Count header
      */
     @Operation(
@@ -60,12 +83,26 @@ public interface IRAController<T, C, ID> {
                     
                     This method returns a subset of entities based on the pagination parameters (_start and _end).
                     The results can be sorted by any field in ascending or descending order. Custom filters can be
-                    applied through additional query parameters passed in allParams.
+                    applied through additional query parameters passed in allParams. A filter name may carry a
+                    json-server style operator suffix: _ne, _gte, _lte, _like or _in (comma-separated values).
                     
                     The response includes an X-Total-Count header containing the total number of entities
                     matching the filter criteria (not just the current page). This header is essential
                     for ra-spring-data-provider to calculate pagination correctly.
                     
+                    Keyset pagination: pass _after (empty for the first window, then the value of the
+                    X-Next-Cursor response header) to page with a cursor instead of an offset. The window size
+                    is _end - _start, no X-Total-Count is computed and X-Next-Cursor is omitted on the last window.
+                    
+                    Partial pagination: resources that opt into partial pagination return an X-Has-Next-Page
+                    header (true or false) instead of X-Total-Count.
+                    
+                    Sparse fieldsets: pass _fields (e.g. _fields=title,status) to return only these fields and the
+                    id. Services that support it select only these columns; the others are left out or null.
+                    
+                    Window limits: resources may bound the window size. A larger window is either rejected with
+                    400 Bad Request or clamped, in which case the X-Window-Limit header carries the applied size.
+                    
                     Example: GET /api/posts?_start=0&_end=10&_sort=title&_order=ASC&status=published
                     """,
             operationId = "getList"
@@ -244,6 +281,29 @@ public interface IRAController<T, C, ID> {
             @RequestBody C data
     );
 
+    /**
+     * Creates many entities in a single operation.
+     * This endpoint is not part of the standard data provider methods; ra-spring-data-provider exposes it as the
+     * custom {@code createMany} method, for imports and bulk creations.
+     *
+     * @param data the request bodies of the new entities to create
+     * @return ResponseEntity containing the created entities, in the order of the request bodies, typically with HTTP
+     * status 201 Created
+     */
+    @Operation(
+            summary = "CreateMany: Create multiple entities",
+            description = """
+                    Creates multiple entities with the provided data in a single operation.
+                    The inserts are sent to the database in JDBC batches where the service supports it.
+                    Returns the created entities in the order of the request bodies.
+                    """
+    )
+    @PostMapping(value = "/createMany", produces = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<List<T>> createMany(
+            @Parameter(description = "Entity data to create, one element per entity", required = true)
+            @RequestBody List<C> data
+    );
+
     /**
      * Updates an existing entity with the provided fields.
      * This endpoint implements ra-spring-data-provider's update operation with support for partial updates.
@@ -0,0 +1,55 @@
+package dev.femrek.reactadmindataprovider.controller;
+
+import jakarta.servlet.ServletContext;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.support.WebApplicationContextUtils;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Serializes response bodies to JSON the way Spring MVC would, for the controller features that work on the bytes of a
+ * body rather than on the body itself.
+ * <p>
+ * The {@link JsonMapper} bean of the application is used when the current request has a web application context
+ * defining a unique one, so that the bytes match the configured serialization; otherwise, a default mapper.
+ */
+final class JsonBodies {
+    private static final Log log = LogFactory.getLog(JsonBodies.class);
+
+    private JsonBodies() {
+    }
+
+    /**
+     * @param body the response body
+     * @return the JSON bytes of the body, or null if it cannot be serialized or Jackson is not available
+     */
+    static byte[] write(Object body) {
+        try {
+            return Mappers.current().writeValueAsBytes(body);
+        } catch (RuntimeException | LinkageError e) {
+            log.debug("The response body cannot be serialized: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Holds the mappers, only loaded once a body is serialized.
+     */
+    private static final class Mappers {
+        private static final JsonMapper DEFAULT = new JsonMapper();
+
+        private static JsonMapper current() {
+            RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+            if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+                return DEFAULT;
+            }
+            ServletContext servletContext = servletAttributes.getRequest().getServletContext();
+            WebApplicationContext context = WebApplicationContextUtils.findWebApplicationContext(servletContext);
+            return context != null ? context.getBeanProvider(JsonMapper.class).getIfUnique(() -> DEFAULT) : DEFAULT;
+        }
+    }
+}
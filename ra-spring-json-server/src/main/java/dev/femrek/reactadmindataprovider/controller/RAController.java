@@ -1,20 +1,45 @@
 package dev.femrek.reactadmindataprovider.controller;
 
+import dev.femrek.reactadmindataprovider.cache.RecordCache;
+import dev.femrek.reactadmindataprovider.cache.ResponseCache;
+import dev.femrek.reactadmindataprovider.cache.SingleFlight;
+import dev.femrek.reactadmindataprovider.count.CountStrategy;
+import dev.femrek.reactadmindataprovider.count.TotalCount;
+import dev.femrek.reactadmindataprovider.pagination.DeepOffsetPaging;
+import dev.femrek.reactadmindataprovider.pagination.KeysetCursor;
+import dev.femrek.reactadmindataprovider.pagination.KeysetQueries;
+import dev.femrek.reactadmindataprovider.pagination.KeysetSlice;
+import dev.femrek.reactadmindataprovider.pagination.OffsetPageRequest;
+import dev.femrek.reactadmindataprovider.pagination.WindowLimits;
 import dev.femrek.reactadmindataprovider.service.IRAService;
+import dev.femrek.reactadmindataprovider.sort.SortableFields;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PropertyReferenceException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * Abstract base controller providing standard CRUD operations for resources. This automatically calls related service
@@ -31,10 +56,146 @@ public abstract class RAController<T, C, ID> implements IRAController<T, C, ID>
 
     protected abstract IRAService<T, C, ID> getService();
 
+    /**
+     * Returns the strategy computing the <code>X-Total-Count</code> of getList responses for this resource.
+     * <p>
+     * The strategy is only consulted when the service implements {@link IRAService#findSliceWithFilters} without
+     * counting, and when the total cannot be derived from the last page. Override to return a single, shared instance
+     * (e.g. a field), since strategies such as {@link CountStrategy#cached} keep state between requests.
+     *
+     * @return the count strategy; {@link CountStrategy#exact()} by default
+     */
+    protected CountStrategy getCountStrategy() {
+        return CountStrategy.exact();
+    }
+
+    /**
+     * Returns whether getList responses of this resource use partial pagination.
+     * <p>
+     * In partial pagination mode, no total is computed: the response carries an <code>X-Has-Next-Page</code> header
+     * instead of <code>X-Total-Count</code>, and ra-spring-data-provider returns a <code>pageInfo</code> to React Admin.
+     * Combined with a service whose {@link IRAService#findSliceWithFilters} fetches {@code pageSize + 1} rows, this
+     * removes the count query entirely, e.g. for append-only log resources.
+     *
+     * @return true to use partial pagination; false by default
+     */
+    protected boolean isPartialPagination() {
+        return false;
+    }
+
+    /**
+     * Returns the fields getList and getManyReference responses of this resource can be sorted by.
+     * <p>
+     * With a restricted registry, requests sorting by any other field are rejected with <code>400 Bad Request</code>
+     * and the tiebreakers of each requested field are appended to the sort. The registry is validated against the JPA
+     * metamodel at startup. Unrestricted, the sort is passed to the service as requested, and a sort field the
+     * service reports as unknown ({@link IllegalArgumentException} or {@link PropertyReferenceException}) is also
+     * rejected with <code>400 Bad Request</code>. Override to return a single, shared instance (e.g. a constant).
+     *
+     * @return the sortable fields; {@link SortableFields#unrestricted()} by default
+     */
+    protected SortableFields getSortableFields() {
+        return SortableFields.unrestricted();
+    }
+
+    /**
+     * Returns the upper bounds of the windows served by getList and getManyReference for this resource.
+     * <p>
+     * The limits are enforced before the service is called. A larger window is either clamped, in which case the
+     * response carries the applied window size in an <code>X-Window-Limit</code> header, or rejected with
+     * <code>400 Bad Request</code>. The maximum number of rows also bounds the distinct ids of a getMany request,
+     * which is always rejected when larger, since clamping it would silently drop records.
+     *
+     * @return the window limits; {@link WindowLimits#unlimited()} by default
+     */
+    protected WindowLimits getWindowLimits() {
+        return WindowLimits.unlimited();
+    }
+
+    /**
+     * Returns the deep offset paging of getList for this resource.
+     * <p>
+     * When enabled, windows starting beyond its threshold are served as seeks from a recorded boundary if the service
+     * implements {@link IRAService#findWithFiltersAfter}, and single-field sorts get the identifier as a tiebreaker.
+     * Override to return a single, shared instance (e.g. a field), since it records boundaries between requests.
+     *
+     * @return the deep offset paging; {@link DeepOffsetPaging#disabled()} by default
+     */
+    protected DeepOffsetPaging getDeepOffsetPaging() {
+        return DeepOffsetPaging.disabled();
+    }
+
+    /**
+     * Returns the cache getOne reads the records of this resource through.
+     * <p>
+     * When enabled, getOne serves cached records without calling the service, getMany only asks the service for the
+     * records that are not cached, and update, updateMany, delete and deleteMany invalidate the records of the ids they
+     * are given. Override to return a single, shared instance (e.g. a
+     * field), since it keeps the records between requests.
+     *
+     * @return the record cache; {@link RecordCache#disabled()} by default
+     */
+    protected RecordCache<T> getRecordCache() {
+        return RecordCache.disabled();
+    }
+
+    /**
+     * Returns the cache of the serialized getList responses of this resource.
+     * <p>
+     * When enabled, getList responses are cached by their normalized query (filters, sort, served window and fields)
+     * and repeated queries are answered from the cache, without calling the service nor serializing the rows. Every
+     * write of this controller clears the cache. Keyset windows are not cached. Override to return a single, shared instance
+     * (e.g. a field), since it keeps the responses between requests.
+     *
+     * @return the response cache; {@link ResponseCache#disabled()} by default
+     */
+    protected ResponseCache getResponseCache() {
+        return ResponseCache.disabled();
+    }
+
+    /**
+     * Returns the coalescing of the concurrent getList queries of this resource.
+     * <p>
+     * When enabled, concurrent getList requests with the same filters, sort, window and fields wait for a single call
+     * of the service and share its page and total, so that a burst of identical requests runs each query once. Keyset
+     * windows are not coalesced. Override to return a single, shared instance (e.g. a field), since it tracks the calls
+     * in flight between requests.
+     *
+     * @return the coalescing; {@link SingleFlight#disabled()} by default
+     */
+    protected SingleFlight getSingleFlight() {
+        return SingleFlight.disabled();
+    }
+
+    /**
+     * Returns whether getOne and getList responses of this resource carry an <code>ETag</code> and honor
+     * <code>If-None-Match</code>.
+     * <p>
+     * When enabled, getOne first asks the service for the {@link IRAService#findVersionById version} of the record: a
+     * client that already has that version gets <code>304 Not Modified</code> without the record being loaded. Records
+     * are then only served from the {@link #getRecordCache() record cache} if they were cached at that version. Without
+     * a version, and for getList, the entity tag is a hash of the response body and of its paging headers, which spares
+     * the client the transfer but not the query.
+     *
+     * @return true to answer conditional requests; false by default
+     */
+    protected boolean isConditionalRequests() {
+        return false;
+    }
+
     private static final List<String> RESERVED_PARAMS = List.of(
-            "_start", "_end", "_sort", "_order", "_embed"
+            "_start", "_end", "_sort", "_order", "_embed", "_after", "_fields"
     );
 
+    private static final String AFTER_PARAM = "_after";
+    private static final String FIELDS_PARAM = "_fields";
+    private static final String ID_FIELD = "id";
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    private static final String TOTAL_COUNT_STRATEGY_HEADER = "X-Total-Count-Strategy";
+    private static final String HAS_NEXT_PAGE_HEADER = "X-Has-Next-Page";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String WINDOW_LIMIT_HEADER = "X-Window-Limit";
+
     @Override
     public ResponseEntity<List<T>> getList(
             int _start,
@@ -53,27 +214,347 @@ public abstract class RAController<T, C, ID> implements IRAController<T, C, ID>
                     "_end parameter must be greater than _start parameter.");
         }
 
-        // Calculate Pagination
-        int pageSize = _end - _start;
-        int pageNumber = _start / pageSize;
-        Sort sort = Sort.by(Sort.Direction.fromString(_order), _sort);
-        Pageable pageable = PageRequest.of(pageNumber, pageSize, sort);
+        int limit = limitWindow(_end - _start);
 
         // Handle _embed Parameter
         if (_embed != null) {
             log.warn("_embed parameter is not supported and will be ignored.");
         }
 
+        // Switch to keyset pagination if a cursor (possibly empty for the first window) is given
+        String after = allParams.get(AFTER_PARAM);
+        if (after != null) {
+            RESERVED_PARAMS.forEach(allParams.keySet()::remove);
+            return getListAfter(after, limit, limit < _end - _start, _sort, _order, allParams);
+        }
+
+        // Calculate Pagination
+        DeepOffsetPaging deepOffsetPaging = getDeepOffsetPaging();
+        Sort sort = deepOffsetPaging.withTiebreaker(toSort(_sort, _order));
+        Pageable pageable = OffsetPageRequest.of(_start, limit, sort);
+
         // Refine params and fetch Data
+        Set<String> fields = parseFields(allParams.get(FIELDS_PARAM));
         RESERVED_PARAMS.forEach(allParams.keySet()::remove);
-        Page<T> pageResult = getService().findWithFilters(allParams, pageable);
+
+        // Serve repeated queries from the response cache, keyed by the window actually served
+        Object queryKey = queryKey(_start, limit, sort, fields, allParams);
+        ResponseCache responseCache = getResponseCache();
+        long cacheStamp = 0;
+        if (responseCache.isEnabled()) {
+            ResponseCache.CachedResponse cached = responseCache.get(queryKey);
+            if (cached != null) {
+                return jsonResponse(cached.getHeaders(), new ByteBufferResource(cached.getBody()), limit,
+                        limit < _end - _start);
+            }
+            cacheStamp = responseCache.stamp();
+        }
+
+        // Concurrent duplicates share a single call of the service
+        SingleFlight singleFlight = getSingleFlight();
+        Window<T> window;
+        if (singleFlight.isEnabled()) {
+            window = singleFlight.execute(queryKey, () -> findWindow(deepOffsetPaging, pageable, fields, allParams));
+        } else {
+            window = findWindow(deepOffsetPaging, pageable, fields, allParams);
+        }
+        Slice<T> sliceResult = window.slice;
 
         // Set Headers
         HttpHeaders headers = new HttpHeaders();
-        headers.add("X-Total-Count", String.valueOf(pageResult.getTotalElements()));
-        headers.add(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, "X-Total-Count");
+        if (window.total == null) {
+            headers.add(HAS_NEXT_PAGE_HEADER, String.valueOf(sliceResult.hasNext()));
+            headers.add(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, HAS_NEXT_PAGE_HEADER);
+        } else {
+            headers.add(TOTAL_COUNT_HEADER, window.total.toHeaderValue());
+            headers.add(TOTAL_COUNT_STRATEGY_HEADER, window.total.getStrategy());
+            headers.setAccessControlExposeHeaders(List.of(TOTAL_COUNT_HEADER, TOTAL_COUNT_STRATEGY_HEADER));
+        }
 
-        return new ResponseEntity<>(pageResult.getContent(), headers, HttpStatus.OK);
+        // The bytes hashed for the entity tag and cached are the bytes of the response
+        if (responseCache.isEnabled() || isConditionalRequests()) {
+            byte[] json = JsonBodies.write(sliceResult.getContent());
+            if (json != null) {
+                if (isConditionalRequests()) {
+                    addETag(headers, json);
+                }
+                responseCache.put(queryKey, headers, json, cacheStamp);
+                return jsonResponse(headers, new ByteArrayResource(json), limit, limit < _end - _start);
+            }
+        }
+        if (limit < _end - _start) {
+            addWindowLimitHeader(headers, limit);
+        }
+
+        return new ResponseEntity<>(sliceResult.getContent(), headers, HttpStatus.OK);
+    }
+
+    /**
+     * Returns a getList response whose body is already serialized to JSON. Spring MVC writes the bytes with its
+     * resource message converter, applies the {@code ResponseBodyAdvice} of the application and answers a matching
+     * <code>If-None-Match</code> with <code>304 Not Modified</code>, as for any other response. The
+     * <code>X-Window-Limit</code> header depends on the requested window rather than on the rows, so it is added here.
+     */
+    @SuppressWarnings("unchecked")
+    private ResponseEntity<List<T>> jsonResponse(HttpHeaders headers, Resource body, int limit, boolean clamped) {
+        if (clamped) {
+            addWindowLimitHeader(headers, limit);
+        }
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        ResponseEntity<?> response = new ResponseEntity<>(body, headers, HttpStatus.OK);
+        return (ResponseEntity<List<T>>) response;
+    }
+
+    /**
+     * Fetches an offset window of getList and, unless in partial pagination mode, its total.
+     */
+    private Window<T> findWindow(DeepOffsetPaging deepOffsetPaging,
+                                 Pageable pageable,
+                                 Set<String> fields,
+                                 Map<String, String> filters) {
+        Slice<T> slice;
+        try {
+            if (!fields.isEmpty()) {
+                slice = getService().findSliceWithFilters(new HashMap<>(filters), pageable, fields);
+            } else if (deepOffsetPaging.isEnabled() && deepOffsetPaging.isSeekable(pageable.getSort())) {
+                slice = findSliceBySeek(deepOffsetPaging, filters, pageable);
+                recordBoundaries(deepOffsetPaging, filters, pageable, slice);
+            } else {
+                slice = getService().findSliceWithFilters(new HashMap<>(filters), pageable);
+            }
+        } catch (IllegalArgumentException | PropertyReferenceException e) {
+            // Unknown filters, operators that do not apply to a field, unconvertible values, unknown _fields or
+            // unknown _sort fields when the sortable fields are unrestricted
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        TotalCount total = isPartialPagination() ? null : countTotal(slice, pageable, filters);
+        return new Window<>(slice, total);
+    }
+
+    /**
+     * Returns the normalized query of a getList request, equal for requests differing only in the order of their
+     * filters.
+     */
+    private static Object queryKey(int start, int size, Sort sort, Set<String> fields, Map<String, String> filters) {
+        return List.of(start, size, sort, fields, new TreeMap<>(filters));
+    }
+
+    /**
+     * Fetches an offset window, seeking from the closest recorded boundary when the window is deep enough. Falls back
+     * to the offset when no boundary is known or the service does not support keyset pagination.
+     */
+    private Slice<T> findSliceBySeek(DeepOffsetPaging deepOffsetPaging,
+                                     Map<String, String> filters,
+                                     Pageable pageable) {
+        DeepOffsetPaging.Boundary boundary = deepOffsetPaging.seekFrom(filters, pageable.getSort(), pageable.getOffset());
+        if (boundary != null) {
+            int skip = Math.toIntExact(pageable.getOffset() - boundary.getOffset());
+            try {
+                KeysetSlice<T> slice = getService().findWithFiltersAfter(new HashMap<>(filters), boundary.getCursor(),
+                        pageable.getSort(), skip, pageable.getPageSize());
+                return new SliceImpl<>(slice.getContent(), pageable, slice.hasNext());
+            } catch (UnsupportedOperationException e) {
+                log.debug("Deep offset window served by offset: " + e.getMessage());
+            }
+        }
+        return getService().findSliceWithFilters(new HashMap<>(filters), pageable);
+    }
+
+    /**
+     * Records the cursors of the rows of a window that end at a boundary position, for later deep windows.
+     */
+    private void recordBoundaries(DeepOffsetPaging deepOffsetPaging,
+                                  Map<String, String> filters,
+                                  Pageable pageable,
+                                  Slice<T> slice) {
+        List<T> content = slice.getContent();
+        for (int i = 0; i < content.size(); i++) {
+            long position = pageable.getOffset() + i + 1;
+            if (deepOffsetPaging.isBoundary(position)) {
+                try {
+                    deepOffsetPaging.record(filters, pageable.getSort(), position,
+                            KeysetQueries.cursorOf(content.get(i), pageable.getSort()));
+                } catch (BeansException e) {
+                    log.debug("Cannot record a deep offset boundary, the sort field is not readable: " + e.getMessage());
+                    return;
+                } catch (IllegalArgumentException e) {
+                    log.debug("Cannot record a deep offset boundary at " + position + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies the {@link #getWindowLimits() window limits} to a requested window size.
+     *
+     * @return the window size to serve
+     */
+    private int limitWindow(int requested) {
+        WindowLimits limits = getWindowLimits();
+        int maxRows = limits.getMaxRows();
+        if (requested <= maxRows) {
+            return requested;
+        }
+        if (limits.getOverflow() == WindowLimits.Overflow.REJECT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "The requested window of " + requested + " rows exceeds the limit of " + maxRows + " rows.");
+        }
+        return maxRows;
+    }
+
+    /**
+     * Sets the entity tag of a getList response from its serialized body and the headers describing it. Spring MVC
+     * then answers a matching <code>If-None-Match</code> with <code>304 Not Modified</code>.
+     */
+    private static void addETag(HttpHeaders headers, byte[] json) {
+        headers.setETag(ETags.ofJson(json,
+                headers.getFirst(TOTAL_COUNT_HEADER),
+                headers.getFirst(HAS_NEXT_PAGE_HEADER),
+                headers.getFirst(NEXT_CURSOR_HEADER)));
+    }
+
+    private static void addWindowLimitHeader(HttpHeaders headers, int limit) {
+        headers.set(WINDOW_LIMIT_HEADER, String.valueOf(limit));
+        List<String> exposedHeaders = new ArrayList<>(headers.getAccessControlExposeHeaders());
+        exposedHeaders.add(WINDOW_LIMIT_HEADER);
+        headers.setAccessControlExposeHeaders(exposedHeaders);
+    }
+
+    /**
+     * Parses the comma-separated <code>_sort</code> and <code>_order</code> parameters into the sort of a query. A
+     * single direction applies to every field; otherwise there must be one direction per field.
+     */
+    private Sort toSort(String _sort, String _order) {
+        String[] properties = _sort.split(",");
+        String[] directions = _order.split(",");
+        if (directions.length != 1 && directions.length != properties.length) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "_order must contain a single direction or one direction per _sort field.");
+        }
+
+        List<Sort.Order> orders = new ArrayList<>();
+        try {
+            for (int i = 0; i < properties.length; i++) {
+                String property = properties[i].trim();
+                if (property.isEmpty()) {
+                    throw new IllegalArgumentException("_sort must not contain empty field names.");
+                }
+                Sort.Direction direction = Sort.Direction.fromString(directions[directions.length == 1 ? 0 : i].trim());
+                orders.add(new Sort.Order(direction, property));
+            }
+            return getSortableFields().toSort(orders);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    /**
+     * Parses the comma-separated <code>_fields</code> parameter. The identifier is always part of a non-empty
+     * fieldset, since React Admin needs it to identify the records.
+     *
+     * @return the requested field names in order; empty when all fields are requested
+     */
+    private static Set<String> parseFields(String fieldsParam) {
+        Set<String> fields = new LinkedHashSet<>();
+        if (fieldsParam == null) {
+            return fields;
+        }
+        for (String field : fieldsParam.split(",")) {
+            if (!field.isBlank()) {
+                fields.add(field.trim());
+            }
+        }
+        if (!fields.isEmpty()) {
+            fields.add(ID_FIELD);
+        }
+        return Collections.unmodifiableSet(fields);
+    }
+
+    /**
+     * Computes the total of a getList response. A {@link Page} already carries an exact total, and the last window of
+     * a {@link Slice} reveals it without counting; otherwise the {@link #getCountStrategy() count strategy} decides.
+     */
+    private TotalCount countTotal(Slice<T> slice, Pageable pageable, Map<String, String> filters) {
+        if (slice instanceof Page<T> page) {
+            return TotalCount.exact(page.getTotalElements());
+        }
+        if (!slice.hasNext() && (pageable.getOffset() == 0 || slice.hasContent())) {
+            return TotalCount.exact(pageable.getOffset() + slice.getNumberOfElements());
+        }
+        return getCountStrategy().count(Collections.unmodifiableMap(filters),
+                limit -> getService().countWithFilters(new HashMap<>(filters), limit));
+    }
+
+    /**
+     * Serves a getList request in keyset mode. The window starts after the given cursor and its size is
+     * {@code _end - _start}, unless clamped by the window limits. Instead of <code>X-Total-Count</code>, the response
+     * carries the cursor of the next window in the <code>X-Next-Cursor</code> header, which is omitted on the last
+     * window.
+     */
+    private ResponseEntity<List<T>> getListAfter(String after,
+                                                 int limit,
+                                                 boolean clamped,
+                                                 String _sort,
+                                                 String _order,
+                                                 Map<String, String> filters) {
+        KeysetCursor cursor = null;
+        if (!after.isEmpty()) {
+            try {
+                cursor = KeysetCursor.decode(after);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "_after parameter is not a valid cursor.");
+            }
+            if (!cursor.getSortField().equals(_sort)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "_after cursor was issued for a different _sort field.");
+            }
+        }
+        if (_sort.contains(",") || _order.contains(",")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Keyset pagination supports a single _sort field.");
+        }
+        if (!getSortableFields().isAllowed(_sort)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Sorting by " + _sort + " is not allowed.");
+        }
+
+        // The identifier breaks ties so that every row has a unique position in the order
+        Sort.Direction direction;
+        try {
+            direction = Sort.Direction.fromString(_order);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        Sort sort = Sort.by(direction, _sort);
+        if (!KeysetQueries.ID_FIELD.equals(_sort)) {
+            sort = sort.and(Sort.by(direction, KeysetQueries.ID_FIELD));
+        }
+
+        KeysetSlice<T> slice;
+        try {
+            slice = getService().findWithFiltersAfter(filters, cursor, sort, limit);
+        } catch (UnsupportedOperationException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_IMPLEMENTED, e.getMessage());
+        } catch (IllegalArgumentException | PropertyReferenceException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        if (slice.hasNext()) {
+            headers.add(NEXT_CURSOR_HEADER, slice.getNextCursor().encode());
+        }
+        headers.add(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, NEXT_CURSOR_HEADER);
+        if (isConditionalRequests()) {
+            byte[] json = JsonBodies.write(slice.getContent());
+            if (json != null) {
+                addETag(headers, json);
+                return jsonResponse(headers, new ByteArrayResource(json), limit, clamped);
+            }
+        }
+        if (clamped) {
+            addWindowLimitHeader(headers, limit);
+        }
+
+        return new ResponseEntity<>(slice.getContent(), headers, HttpStatus.OK);
     }
 
     @Override
@@ -82,7 +563,56 @@ public abstract class RAController<T, C, ID> implements IRAController<T, C, ID>
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
                     "id parameter is null or empty. This parameter is required for `getMany` operation.");
         }
-        return ResponseEntity.ok(getService().findAllById(id));
+        int maxRows = getWindowLimits().getMaxRows();
+        if (id.size() > maxRows) {
+            int distinctIds = new HashSet<>(id).size();
+            if (distinctIds > maxRows) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "The " + distinctIds + " requested ids exceed the limit of " + maxRows + " rows.");
+            }
+        }
+        RecordCache<T> recordCache = getRecordCache();
+        if (!recordCache.isEnabled()) {
+            return ResponseEntity.ok(getService().findAllById(id));
+        }
+        return ResponseEntity.ok(findRecords(recordCache, id));
+    }
+
+    /**
+     * Finds records through the record cache: the cached records are served as they are, only the other ids are passed
+     * to the service, and the records it returns are cached under their <code>id</code> property.
+     */
+    private List<T> findRecords(RecordCache<T> recordCache, List<ID> ids) {
+        List<T> records = new ArrayList<>(ids.size());
+        Set<ID> missingIds = new LinkedHashSet<>();
+        for (ID id : ids) {
+            T record = id != null ? recordCache.get(id) : null;
+            if (record != null) {
+                records.add(record);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        if (missingIds.isEmpty()) {
+            return records;
+        }
+
+        long stamp = recordCache.stamp();
+        List<T> fetched = getService().findAllById(new ArrayList<>(missingIds));
+        records.addAll(fetched);
+        for (T record : fetched) {
+            Object recordId;
+            try {
+                recordId = PropertyAccessorFactory.forBeanPropertyAccess(record).getPropertyValue(ID_FIELD);
+            } catch (BeansException e) {
+                log.debug("Cannot cache the records of getMany, the id is not readable: " + e.getMessage());
+                break;
+            }
+            if (recordId != null && missingIds.contains(recordId)) {
+                recordCache.put(recordId, record, stamp);
+            }
+        }
+        return records;
     }
 
     @Override
@@ -105,11 +635,11 @@ public abstract class RAController<T, C, ID> implements IRAController<T, C, ID>
                     "_end parameter must be greater than _start parameter.");
         }
 
+        int limit = limitWindow(_end - _start);
+
         // Calculate Pagination
-        int pageSize = _end - _start;
-        int pageNumber = _start / pageSize;
-        Sort sort = Sort.by(Sort.Direction.fromString(_order), _sort);
-        Pageable pageable = PageRequest.of(pageNumber, pageSize, sort);
+        Sort sort = toSort(_sort, _order);
+        Pageable pageable = OffsetPageRequest.of(_start, limit, sort);
 
         // Handle _embed Parameter
         if (_embed != null) {
@@ -118,48 +648,181 @@ public abstract class RAController<T, C, ID> implements IRAController<T, C, ID>
 
         // Refine params and fetch Data
         RESERVED_PARAMS.forEach(allParams.keySet()::remove);
-        Page<T> pageResult = getService().findWithTargetAndFilters(target, targetId, allParams, pageable);
+        Page<T> pageResult;
+        try {
+            pageResult = getService().findWithTargetAndFilters(target, targetId, allParams, pageable);
+        } catch (IllegalArgumentException | PropertyReferenceException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
 
         // Set Headers
         HttpHeaders headers = new HttpHeaders();
-        headers.add("X-Total-Count", String.valueOf(pageResult.getTotalElements()));
-        headers.add(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, "X-Total-Count");
+        headers.add(TOTAL_COUNT_HEADER, String.valueOf(pageResult.getTotalElements()));
+        headers.add(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, TOTAL_COUNT_HEADER);
+        if (limit < _end - _start) {
+            addWindowLimitHeader(headers, limit);
+        }
 
         return new ResponseEntity<>(pageResult.getContent(), headers, HttpStatus.OK);
     }
 
     @Override
     public ResponseEntity<T> getOne(ID id) {
-        return ResponseEntity.ok(getService().findById(id));
+        if (!isConditionalRequests()) {
+            return ResponseEntity.ok(findRecord(id));
+        }
+
+        // A known version answers a conditional request before the record is loaded
+        HttpHeaders headers = new HttpHeaders();
+        Object version = getService().findVersionById(id);
+        if (version != null) {
+            String eTag = ETags.ofVersion(id, version);
+            headers.setETag(eTag);
+            if (ETags.matches(ETags.ifNoneMatch(), eTag)) {
+                return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+            }
+            return new ResponseEntity<>(findRecord(id, version), headers, HttpStatus.OK);
+        }
+
+        T record = findRecord(id);
+        String eTag = ETags.ofBody(record);
+        if (eTag != null) {
+            headers.setETag(eTag);
+        }
+        return new ResponseEntity<>(record, headers, HttpStatus.OK);
+    }
+
+    /**
+     * Finds a record through the {@link #getRecordCache() record cache}.
+     */
+    private T findRecord(ID id) {
+        RecordCache<T> recordCache = getRecordCache();
+        if (!recordCache.isEnabled()) {
+            return getService().findById(id);
+        }
+        T record = recordCache.get(id);
+        if (record == null) {
+            long stamp = recordCache.stamp();
+            record = getService().findById(id);
+            recordCache.put(id, record, stamp);
+        }
+        return record;
+    }
+
+    /**
+     * Finds a record at the given version through the {@link #getRecordCache() record cache}, so that the body matches
+     * the entity tag computed from the version. A record cached at another version, or without one, is loaded again.
+     */
+    private T findRecord(ID id, Object version) {
+        RecordCache<T> recordCache = getRecordCache();
+        if (!recordCache.isEnabled()) {
+            return getService().findById(id);
+        }
+        T record = recordCache.get(id, version);
+        if (record == null) {
+            long stamp = recordCache.stamp();
+            record = getService().findById(id);
+            recordCache.put(id, record, version, stamp);
+        }
+        return record;
     }
 
     @Override
     public ResponseEntity<T> create(C data) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(getService().create(data));
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(getService().create(data));
+        } finally {
+            invalidateLists();
+        }
+    }
+
+    @Override
+    public ResponseEntity<List<T>> createMany(List<C> data) {
+        List<C> items = data != null ? data : Collections.emptyList();
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(getService().createMany(items));
+        } catch (IllegalArgumentException e) {
+            // An item that cannot be created, e.g. one with the id of an existing record
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } finally {
+            invalidateLists();
+        }
     }
 
     @Override
     public ResponseEntity<T> update(ID id, Map<String, Object> fields) {
-        return ResponseEntity.ok(getService().update(id, fields));
+        try {
+            return ResponseEntity.ok(getService().update(id, fields));
+        } catch (IllegalArgumentException e) {
+            // A value that cannot be coerced to the type of its field
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } finally {
+            getRecordCache().invalidate(id);
+            invalidateLists();
+        }
     }
 
     @Override
     public ResponseEntity<List<ID>> updateMany(List<ID> id, Map<String, Object> fields) {
         List<ID> ids = id != null ? id : Collections.emptyList();
-        List<ID> updatedIds = getService().updateMany(ids, fields);
+        List<ID> updatedIds;
+        try {
+            updatedIds = getService().updateMany(ids, fields);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } finally {
+            getRecordCache().invalidateAll(ids);
+            invalidateLists();
+        }
         return ResponseEntity.ok(updatedIds);
     }
 
     @Override
     public ResponseEntity<Void> delete(ID id) {
-        getService().deleteById(id);
+        try {
+            getService().deleteById(id);
+        } finally {
+            getRecordCache().invalidate(id);
+            invalidateLists();
+        }
         return ResponseEntity.noContent().build();
     }
 
     @Override
     public ResponseEntity<List<ID>> deleteMany(List<ID> id) {
         List<ID> ids = id != null ? id : Collections.emptyList();
-        List<ID> deletedIds = getService().deleteMany(ids);
+        List<ID> deletedIds;
+        try {
+            deletedIds = getService().deleteMany(ids);
+        } finally {
+            getRecordCache().invalidateAll(ids);
+            invalidateLists();
+        }
         return ResponseEntity.ok(deletedIds);
     }
+
+    /**
+     * Makes the getList requests following a write see it: the calls in flight are detached before the cached
+     * responses are cleared, so that a request stamping the cache after the write cannot join a call read before it,
+     * and the totals kept by the count strategy and the boundaries of deep offset paging are forgotten.
+     */
+    private void invalidateLists() {
+        getSingleFlight().clear();
+        getResponseCache().clear();
+        getCountStrategy().clear();
+        getDeepOffsetPaging().clear();
+    }
+
+    /**
+     * The page of a getList response and its total, null in partial pagination mode.
+     */
+    private static final class Window<T> {
+        private final Slice<T> slice;
+        private final TotalCount total;
+
+        private Window(Slice<T> slice, TotalCount total) {
+            this.slice = slice;
+            this.total = total;
+        }
+    }
 }
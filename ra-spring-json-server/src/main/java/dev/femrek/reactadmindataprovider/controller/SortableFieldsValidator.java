@@ -0,0 +1,54 @@
+package dev.femrek.reactadmindataprovider.controller;
+
+import dev.femrek.reactadmindataprovider.sort.SortableFields;
+import jakarta.persistence.EntityManagerFactory;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+
+import java.util.Map;
+
+/**
+ * Validates the {@link RAController#getSortableFields() sortable fields} of every controller once all singletons are
+ * created, so that a misconfigured registry fails the startup instead of the first list request.
+ */
+public class SortableFieldsValidator implements SmartInitializingSingleton {
+    private static final Log log = LogFactory.getLog(SortableFieldsValidator.class);
+
+    private final ListableBeanFactory beanFactory;
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+
+    /**
+     * @param beanFactory          the factory holding the controllers
+     * @param entityManagerFactory the entity manager factory providing the JPA metamodel, if any
+     */
+    public SortableFieldsValidator(ListableBeanFactory beanFactory,
+                                   ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        this.beanFactory = beanFactory;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public void afterSingletonsInstantiated() {
+        Map<String, RAController> controllers = beanFactory.getBeansOfType(RAController.class);
+        controllers.forEach((name, controller) -> {
+            SortableFields sortableFields = controller.getSortableFields();
+            if (!sortableFields.isRestricted()) {
+                return;
+            }
+            EntityManagerFactory factory = entityManagerFactory.getIfAvailable();
+            if (factory == null) {
+                log.warn("No EntityManagerFactory is available, the sortable fields of " + name + " are not validated.");
+                return;
+            }
+            try {
+                sortableFields.validate(factory.getMetamodel());
+            } catch (IllegalStateException e) {
+                throw new IllegalStateException("Invalid sortable fields in controller " + name + ": " + e.getMessage(), e);
+            }
+        });
+    }
+}
@@ -0,0 +1,82 @@
+package dev.femrek.reactadmindataprovider.count;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves the totals of a delegate strategy from a bounded, time-limited cache keyed by the filter set.
+ */
+final class CachedCountStrategy implements CountStrategy {
+    private final CountStrategy delegate;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final ConcurrentHashMap<Map<String, String>, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    CachedCountStrategy(CountStrategy delegate, Duration ttl, int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1.");
+        }
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public TotalCount count(Map<String, String> filters, Counter counter) {
+        Map<String, String> key = Map.copyOf(filters);
+        long now = System.nanoTime();
+
+        Entry entry = entries.get(key);
+        if (entry != null && now - entry.createdAt < ttlNanos) {
+            return entry.total.withStrategy(TotalCount.CACHED);
+        }
+
+        // A total counted concurrently with a write is not cached after the write cleared the cache
+        long stamp = invalidations.get();
+        TotalCount total = delegate.count(filters, counter);
+        if (invalidations.get() != stamp) {
+            return total;
+        }
+        if (entries.size() >= maxEntries) {
+            evict(now);
+        }
+        Entry cached = new Entry(total, now);
+        entries.put(key, cached);
+        // A write may have started while the total was being cached
+        if (invalidations.get() != stamp) {
+            entries.remove(key, cached);
+        }
+        return total;
+    }
+
+    @Override
+    public void clear() {
+        invalidations.incrementAndGet();
+        entries.clear();
+        delegate.clear();
+    }
+
+    private void evict(long now) {
+        entries.values().removeIf(entry -> now - entry.createdAt >= ttlNanos);
+        Iterator<Map<String, String>> keys = entries.keySet().iterator();
+        while (entries.size() >= maxEntries && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static final class Entry {
+        private final TotalCount total;
+        private final long createdAt;
+
+        private Entry(TotalCount total, long createdAt) {
+            this.total = total;
+            this.createdAt = createdAt;
+        }
+    }
+}
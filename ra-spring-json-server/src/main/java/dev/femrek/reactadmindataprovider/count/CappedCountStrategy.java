@@ -0,0 +1,23 @@
+package dev.femrek.reactadmindataprovider.count;
+
+import java.util.Map;
+
+/**
+ * Counts at most {@code cap + 1} rows and reports {@code cap+} when the cap is exceeded.
+ */
+final class CappedCountStrategy implements CountStrategy {
+    private final long cap;
+
+    CappedCountStrategy(long cap) {
+        if (cap < 0 || cap == Long.MAX_VALUE) {
+            throw new IllegalArgumentException("Cap must be between 0 and Long.MAX_VALUE - 1.");
+        }
+        this.cap = cap;
+    }
+
+    @Override
+    public TotalCount count(Map<String, String> filters, Counter counter) {
+        long counted = counter.count(cap + 1);
+        return counted > cap ? TotalCount.atLeast(cap) : TotalCount.exact(counted);
+    }
+}
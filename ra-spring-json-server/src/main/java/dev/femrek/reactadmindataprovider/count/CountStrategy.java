@@ -0,0 +1,91 @@
+package dev.femrek.reactadmindataprovider.count;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Decides how the total of a getList query is computed for the <code>X-Total-Count</code> header.
+ * <p>
+ * A full {@code COUNT(*)} over a large filtered table can cost more than fetching the page itself. Override
+ * {@link dev.femrek.reactadmindataprovider.controller.RAController#getCountStrategy()} to pick another strategy for a
+ * resource. The name of the strategy that produced the total is reported in the <code>X-Total-Count-Strategy</code>
+ * header, so clients know whether the total is exact.
+ * <p>
+ * Strategies may be stateful (see {@link #cached(CountStrategy, Duration, int)}), so keep a single instance per
+ * resource instead of creating one per request.
+ */
+@FunctionalInterface
+public interface CountStrategy {
+    /**
+     * Computes the total for a list query.
+     *
+     * @param filters the filters of the query; must not be modified
+     * @param counter counts the rows matching the filters
+     * @return the total to report
+     */
+    TotalCount count(Map<String, String> filters, Counter counter);
+
+    /**
+     * Forgets the totals kept between requests. Called by the controller after each of its writes.
+     */
+    default void clear() {
+    }
+
+    /**
+     * Counts the rows matching a list query, stopping at the given limit.
+     */
+    @FunctionalInterface
+    interface Counter {
+        /**
+         * @param limit the maximum value worth counting to; {@link Long#MAX_VALUE} for an exact count
+         * @return the number of matching rows, at most {@code limit}
+         */
+        long count(long limit);
+    }
+
+    /**
+     * Counts every matching row. This is the default strategy.
+     *
+     * @return the exact count strategy
+     */
+    static CountStrategy exact() {
+        return ExactCountStrategy.INSTANCE;
+    }
+
+    /**
+     * Stops counting after {@code cap} rows and reports {@code cap+} when more rows match.
+     *
+     * @param cap the maximum total to count exactly
+     * @return the capped count strategy
+     */
+    static CountStrategy capped(long cap) {
+        return new CappedCountStrategy(cap);
+    }
+
+    /**
+     * Reports an estimate instead of counting, e.g. the row estimate of the query planner.
+     * <p>
+     * On PostgreSQL, the estimate of an unfiltered table can be read with
+     * {@code SELECT reltuples::bigint FROM pg_class WHERE oid = 'posts'::regclass}, and the estimate of a filtered
+     * query from the {@code "Plan Rows"} of {@code EXPLAIN (FORMAT JSON)}.
+     *
+     * @param estimator estimates the number of rows matching the given filters
+     * @return the estimated count strategy
+     */
+    static CountStrategy estimated(ToLongFunction<Map<String, String>> estimator) {
+        return new EstimatedCountStrategy(estimator);
+    }
+
+    /**
+     * Caches the totals of another strategy per distinct filter set for the given time.
+     *
+     * @param delegate   the strategy computing the totals on a cache miss
+     * @param ttl        how long a total is served from the cache
+     * @param maxEntries the maximum number of distinct filter sets kept in the cache
+     * @return the cached count strategy
+     */
+    static CountStrategy cached(CountStrategy delegate, Duration ttl, int maxEntries) {
+        return new CachedCountStrategy(delegate, ttl, maxEntries);
+    }
+}
@@ -0,0 +1,18 @@
+package dev.femrek.reactadmindataprovider.count;
+
+import java.util.Map;
+
+/**
+ * Counts every matching row.
+ */
+final class ExactCountStrategy implements CountStrategy {
+    static final ExactCountStrategy INSTANCE = new ExactCountStrategy();
+
+    private ExactCountStrategy() {
+    }
+
+    @Override
+    public TotalCount count(Map<String, String> filters, Counter counter) {
+        return TotalCount.exact(counter.count(Long.MAX_VALUE));
+    }
+}
@@ -0,0 +1,110 @@
+package dev.femrek.reactadmindataprovider.count;
+
+import java.util.Objects;
+
+/**
+ * Total number of rows matching a list query, as reported in the <code>X-Total-Count</code> header, together with the
+ * {@link CountStrategy} that produced it.
+ */
+public final class TotalCount {
+    /**
+     * Strategy name of a total counted with a full {@code COUNT(*)}.
+     */
+    public static final String EXACT = "exact";
+    /**
+     * Strategy name of a total served from a cache.
+     */
+    public static final String CACHED = "cached";
+    /**
+     * Strategy name of a total estimated without counting, e.g. from the query planner.
+     */
+    public static final String ESTIMATED = "estimated";
+    /**
+     * Strategy name of a total whose counting stopped at a cap.
+     */
+    public static final String CAPPED = "capped";
+
+    private final long value;
+    private final boolean lowerBound;
+    private final String strategy;
+
+    private TotalCount(long value, boolean lowerBound, String strategy) {
+        this.value = value;
+        this.lowerBound = lowerBound;
+        this.strategy = Objects.requireNonNull(strategy, "strategy");
+    }
+
+    /**
+     * @param value the exact number of matching rows
+     * @return an exact total
+     */
+    public static TotalCount exact(long value) {
+        return new TotalCount(value, false, EXACT);
+    }
+
+    /**
+     * @param value the estimated number of matching rows
+     * @return an estimated total
+     */
+    public static TotalCount estimated(long value) {
+        return new TotalCount(value, false, ESTIMATED);
+    }
+
+    /**
+     * @param value the number of rows counted before counting stopped
+     * @return a total that is only a lower bound of the real one
+     */
+    public static TotalCount atLeast(long value) {
+        return new TotalCount(value, true, CAPPED);
+    }
+
+    /**
+     * Returns the same total reported under another strategy name, e.g. when it is served from a cache.
+     *
+     * @param strategy the strategy name to report
+     * @return a copy of this total with the given strategy name
+     */
+    public TotalCount withStrategy(String strategy) {
+        return new TotalCount(value, lowerBound, strategy);
+    }
+
+    /**
+     * @return the number of matching rows, or a lower bound of it if {@link #isLowerBound()}
+     */
+    public long getValue() {
+        return value;
+    }
+
+    /**
+     * @return true if the real total may be greater than {@link #getValue()}
+     */
+    public boolean isLowerBound() {
+        return lowerBound;
+    }
+
+    /**
+     * @return the name of the strategy that produced this total
+     */
+    public String getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * @return true if this total was freshly counted and is not a lower bound
+     */
+    public boolean isExact() {
+        return EXACT.equals(strategy) && !lowerBound;
+    }
+
+    /**
+     * @return the value of the <code>X-Total-Count</code> header: the number, followed by "+" for a lower bound
+     */
+    public String toHeaderValue() {
+        return lowerBound ? value + "+" : String.valueOf(value);
+    }
+
+    @Override
+    public String toString() {
+        return "TotalCount{" + toHeaderValue() + ", strategy='" + strategy + "'}";
+    }
+}
@@ -0,0 +1,191 @@
+package dev.femrek.reactadmindataprovider.jpa;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaDelete;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.MariaDBDialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.jdbc.env.spi.IdentifierHelper;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.persister.entity.SingleTableEntityPersister;
+import org.hibernate.query.NativeQuery;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Deletes many entities with set-based statements instead of loading and removing each of them.
+ * <p>
+ * The ids are split into chunks that fit in an {@code IN} list and the bind parameter limit of the database. Every
+ * chunk is deleted by a single statement, and the ids that were actually deleted are reported:
+ * <ul>
+ *     <li>on databases supporting {@code DELETE ... RETURNING} (PostgreSQL, MariaDB) or data change delta tables
+ *     (H2), by the delete statement itself, for entities mapped to a single table without collections</li>
+ *     <li>otherwise, by selecting the existing ids of the chunk as scalars before a {@code CriteriaDelete}</li>
+ * </ul>
+ * Use it from {@link dev.femrek.reactadmindataprovider.service.IRAService#deleteMany}, within a transaction. The
+ * statements bypass entity listeners and cascades, and entities already loaded in the persistence context are not
+ * detached.
+ *
+ * @param <E> the entity type
+ */
+public final class BulkDeleteQuery<E> {
+    private static final ConversionService CONVERSION_SERVICE = DefaultConversionService.getSharedInstance();
+
+    private final EntityManager entityManager;
+    private final Class<E> domainClass;
+    private final int maxChunkSize;
+    private final SingularAttribute<? super E, ?> idAttribute;
+    private final String returningStatement;
+
+    /**
+     * Creates the query with chunks of at most 1000 ids.
+     *
+     * @param entityManager the entity manager to run the statements with
+     * @param domainClass   the entity class
+     */
+    public BulkDeleteQuery(EntityManager entityManager, Class<E> domainClass) {
+        this(entityManager, domainClass, IdChunks.DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param entityManager the entity manager to run the statements with
+     * @param domainClass   the entity class
+     * @param maxChunkSize  the maximum number of ids per statement, lowered to the limits of the database
+     * @throws IllegalArgumentException if maxChunkSize is not positive
+     */
+    public BulkDeleteQuery(EntityManager entityManager, Class<E> domainClass, int maxChunkSize) {
+        if (maxChunkSize < 1) {
+            throw new IllegalArgumentException("maxChunkSize must be at least 1.");
+        }
+        this.entityManager = Objects.requireNonNull(entityManager, "entityManager");
+        this.domainClass = Objects.requireNonNull(domainClass, "domainClass");
+        this.maxChunkSize = maxChunkSize;
+        this.idAttribute = CriteriaQueries.idAttribute(entityManager, domainClass);
+        this.returningStatement = idAttribute != null ? returningStatement(entityManager, domainClass) : null;
+    }
+
+    /**
+     * @return whether the deleted ids are reported by the delete statement itself rather than by a select
+     */
+    public boolean isReturning() {
+        return returningStatement != null;
+    }
+
+    /**
+     * Deletes the entities with the given ids. Must be called within a transaction.
+     *
+     * @param ids  the ids of the entities to delete
+     * @param <ID> the id type
+     * @return the ids of the deleted entities, in the order they were given; missing ids are left out
+     * @throws UnsupportedOperationException if the entity has a composite id
+     */
+    public <ID> List<ID> delete(Collection<ID> ids) {
+        if (idAttribute == null) {
+            throw new UnsupportedOperationException(
+                    "Bulk deletes require a single id attribute on " + domainClass.getSimpleName());
+        }
+
+        int chunkSize = IdChunks.chunkSize(entityManager, 0, maxChunkSize);
+        List<ID> deleted = new ArrayList<>(ids.size());
+        for (List<ID> chunk : IdChunks.split(ids, chunkSize)) {
+            deleted.addAll(returningStatement != null ? deleteReturning(chunk) : selectAndDelete(chunk));
+        }
+        return deleted;
+    }
+
+    private <ID> List<ID> selectAndDelete(List<ID> chunk) {
+        List<ID> existing = CriteriaQueries.selectExistingIds(entityManager, domainClass, idAttribute, chunk);
+        if (!existing.isEmpty()) {
+            CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+            CriteriaDelete<E> delete = criteriaBuilder.createCriteriaDelete(domainClass);
+            Root<E> root = delete.from(domainClass);
+            delete.where(root.get(idAttribute).in(existing));
+            entityManager.createQuery(delete).executeUpdate();
+        }
+        return existing;
+    }
+
+    private <ID> List<ID> deleteReturning(List<ID> chunk) {
+        List<?> rows = entityManager.createNativeQuery(returningStatement)
+                .setParameter("ids", chunk)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(domainClass)
+                .getResultList();
+
+        // The driver may return the ids with another numeric type than the attribute
+        Class<?> idType = ClassUtils.resolvePrimitiveIfNecessary(idAttribute.getJavaType());
+        Set<Object> returned = new HashSet<>(rows.size());
+        for (Object row : rows) {
+            returned.add(CONVERSION_SERVICE.convert(row, idType));
+        }
+        List<ID> deleted = new ArrayList<>(returned.size());
+        for (ID candidate : chunk) {
+            if (returned.contains(candidate)) {
+                deleted.add(candidate);
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Returns the native statement deleting the entities and returning their ids, or null if the dialect does not
+     * support one or the entity spans more than its own table.
+     */
+    private static String returningStatement(EntityManager entityManager, Class<?> domainClass) {
+        Dialect dialect = IdChunks.dialectOf(entityManager);
+        if (!(dialect instanceof PostgreSQLDialect) && !(dialect instanceof MariaDBDialect)
+                && !(dialect instanceof H2Dialect)) {
+            return null;
+        }
+        SessionFactoryImplementor sessionFactory;
+        EntityPersister persister;
+        try {
+            sessionFactory = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class);
+            persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(domainClass);
+        } catch (PersistenceException e) {
+            return null;
+        }
+        if (!(persister instanceof SingleTableEntityPersister singleTable)
+                || persister.hasCollections()
+                || persister.isInherited()
+                || persister.hasSubclasses()
+                || singleTable.getIdentifierColumnNames().length != 1) {
+            return null;
+        }
+        IdentifierHelper identifiers = sessionFactory.getJdbcServices().getJdbcEnvironment().getIdentifierHelper();
+        String table = quote(dialect, identifiers, singleTable.getTableName());
+        String idColumn = quote(dialect, identifiers, singleTable.getIdentifierColumnNames()[0]);
+        String delete = "DELETE FROM " + table + " WHERE " + idColumn + " IN (:ids)";
+        if (dialect instanceof H2Dialect) {
+            return "SELECT " + idColumn + " FROM OLD TABLE (" + delete + ")";
+        }
+        return delete + " RETURNING " + idColumn;
+    }
+
+    /**
+     * Quotes every part of a possibly qualified name with the quotes of the dialect, in the case the database stores
+     * it with, so that reserved words and mixed-case names keep working.
+     */
+    private static String quote(Dialect dialect, IdentifierHelper identifiers, String name) {
+        StringJoiner quoted = new StringJoiner(".");
+        for (String part : name.split("\\.")) {
+            quoted.add(dialect.toQuotedIdentifier(identifiers.toMetaDataObjectName(identifiers.toIdentifier(part))));
+        }
+        return quoted.toString();
+    }
+}
@@ -0,0 +1,133 @@
+package dev.femrek.reactadmindataprovider.jpa;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Updates many entities with set-based statements instead of loading and saving each of them.
+ * <p>
+ * The ids are split into chunks that fit in an {@code IN} list of the database. For every chunk, the ids that exist are
+ * selected as scalars, then {@code UPDATE ... SET ... WHERE id IN (...)} sets the given values on all of them at once,
+ * so no entity is hydrated nor kept in the persistence context. An integral {@code @Version} attribute is incremented.
+ * <p>
+ * Use it from {@link dev.femrek.reactadmindataprovider.service.IRAService#updateMany}, within a transaction:
+ * <pre>{@code
+ * @Transactional
+ * public List<Long> updateMany(Iterable<Long> ids, Map<String, Object> fields) {
+ *     List<Long> idList = new ArrayList<>();
+ *     ids.forEach(idList::add);
+ *     return bulkUpdateQuery.update(idList, fieldPatcher.coerce(fields));
+ * }
+ * }</pre>
+ * The statements bypass entity listeners and cascades, and entities already loaded in the persistence context are not
+ * refreshed.
+ *
+ * @param <E> the entity type
+ */
+public final class BulkUpdateQuery<E> {
+    private final EntityManager entityManager;
+    private final Class<E> domainClass;
+    private final int maxChunkSize;
+    private final SingularAttribute<? super E, ?> idAttribute;
+    private final SingularAttribute<? super E, ?> versionAttribute;
+
+    /**
+     * Creates the query with chunks of at most 1000 ids.
+     *
+     * @param entityManager the entity manager to run the statements with
+     * @param domainClass   the entity class
+     */
+    public BulkUpdateQuery(EntityManager entityManager, Class<E> domainClass) {
+        this(entityManager, domainClass, IdChunks.DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param entityManager the entity manager to run the statements with
+     * @param domainClass   the entity class
+     * @param maxChunkSize  the maximum number of ids per statement, lowered to the limits of the database
+     * @throws IllegalArgumentException if maxChunkSize is not positive
+     */
+    public BulkUpdateQuery(EntityManager entityManager, Class<E> domainClass, int maxChunkSize) {
+        if (maxChunkSize < 1) {
+            throw new IllegalArgumentException("maxChunkSize must be at least 1.");
+        }
+        this.entityManager = Objects.requireNonNull(entityManager, "entityManager");
+        this.domainClass = Objects.requireNonNull(domainClass, "domainClass");
+        this.maxChunkSize = maxChunkSize;
+
+        EntityType<E> entityType = entityManager.getMetamodel().entity(domainClass);
+        this.idAttribute = CriteriaQueries.idAttribute(entityManager, domainClass);
+        this.versionAttribute = entityType.hasVersionAttribute()
+                ? entityType.getSingularAttributes().stream().filter(SingularAttribute::isVersion).findFirst().orElse(null)
+                : null;
+    }
+
+    /**
+     * Sets the given attribute values on the entities with the given ids. Must be called within a transaction.
+     *
+     * @param ids    the ids of the entities to update
+     * @param values the new values, by attribute name, already of the attribute types
+     * @param <ID>   the id type
+     * @return the ids of the updated entities, in the order they were given; missing ids are left out
+     * @throws IllegalArgumentException      if a value is not a basic attribute of the entity
+     * @throws UnsupportedOperationException if the entity has a composite id
+     */
+    public <ID> List<ID> update(Collection<ID> ids, Map<String, Object> values) {
+        if (idAttribute == null) {
+            throw new UnsupportedOperationException(
+                    "Bulk updates require a single id attribute on " + domainClass.getSimpleName());
+        }
+
+        int chunkSize = IdChunks.chunkSize(entityManager, values.size(), maxChunkSize);
+        List<ID> updated = new ArrayList<>(ids.size());
+        for (List<ID> chunk : IdChunks.split(ids, chunkSize)) {
+            List<ID> existing = CriteriaQueries.selectExistingIds(entityManager, domainClass, idAttribute, chunk);
+            if (existing.isEmpty()) {
+                continue;
+            }
+            if (!values.isEmpty()) {
+                entityManager.createQuery(updateStatement(existing, values)).executeUpdate();
+            }
+            updated.addAll(existing);
+        }
+        return updated;
+    }
+
+    @SuppressWarnings("unchecked")
+    private CriteriaUpdate<E> updateStatement(List<?> ids, Map<String, Object> values) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<E> update = criteriaBuilder.createCriteriaUpdate(domainClass);
+        Root<E> root = update.from(domainClass);
+        values.forEach((name, value) -> {
+            Path<Object> path = root.get(name);
+            if (value == null) {
+                update.set(path, criteriaBuilder.nullLiteral((Class<Object>) path.getJavaType()));
+            } else {
+                update.set(path, value);
+            }
+        });
+        if (versionAttribute != null && isIntegral(versionAttribute.getJavaType())) {
+            Path<Number> version = (Path<Number>) root.get(versionAttribute);
+            update.set(version, criteriaBuilder.sum(version, 1));
+        }
+        update.where(root.get(idAttribute).in(ids));
+        return update;
+    }
+
+    private static boolean isIntegral(Class<?> type) {
+        Class<?> boxed = ClassUtils.resolvePrimitiveIfNecessary(type);
+        return boxed == Integer.class || boxed == Long.class || boxed == Short.class;
+    }
+}
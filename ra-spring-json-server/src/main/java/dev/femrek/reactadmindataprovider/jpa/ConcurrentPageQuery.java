@@ -0,0 +1,205 @@
+package dev.femrek.reactadmindataprovider.jpa;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs the content query and the count query of a page concurrently.
+ * <p>
+ * {@link JpaSpecificationExecutor#findAll(Specification, Pageable)} executes the count query after the content query
+ * on the calling thread. This class hands the count to the given executor, which runs it in a transaction of its own
+ * with the read-only flag and isolation level of the calling thread, so that a routing data source sends it to the same
+ * database. The content is fetched on the calling thread meanwhile. On a remote database the latency of a page is then
+ * the slower of the two queries instead of their sum.
+ * <p>
+ * Every running count holds a second connection of the pool, so the executor must be bounded, with fewer threads than
+ * the pool has connections to spare besides the request threads, e.g. a {@code ThreadPoolTaskExecutor} with a small
+ * pool. A count still queued when the content is fetched, or rejected by the executor, runs on the calling thread
+ * instead, and so does every count within a read-write transaction, whose changes only its own connection sees. A count
+ * that is no longer needed is cancelled on the database.
+ * <p>
+ * Use it from {@link dev.femrek.reactadmindataprovider.service.IRAService#findWithFilters}:
+ * <pre>{@code
+ * private final ConcurrentPageQuery<User> pageQuery;
+ *
+ * public UserService(UserRepository repository,
+ *                    EntityManager entityManager,
+ *                    PlatformTransactionManager transactionManager,
+ *                    @Qualifier("countExecutor") Executor countExecutor) {
+ *     this.pageQuery = new ConcurrentPageQuery<>(entityManager, User.class, repository, countExecutor,
+ *             transactionManager);
+ * }
+ *
+ * public Page<UserResponseDTO> findWithFilters(Map<String, String> filters, Pageable pageable) {
+ *     return pageQuery.findAll(toSpecification(filters), pageable).map(this::toResponseDTO);
+ * }
+ * }</pre>
+ * With {@link dev.femrek.reactadmindataprovider.service.RAJpaService}, getList reads a slice and a bounded count
+ * instead, so {@code findWithFilters} serves getManyReference and the services that do not override
+ * {@code findSliceWithFilters}.
+ * <p>
+ * The specification is evaluated on two threads at once, so it must not modify shared state such as the filter map.
+ * The entity manager must be the shared, transaction-bound one injected by Spring.
+ *
+ * @param <E> the entity type
+ */
+public final class ConcurrentPageQuery<E> {
+    private final EntityManager entityManager;
+    private final Class<E> domainClass;
+    private final JpaSpecificationExecutor<E> repository;
+    private final Executor executor;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Creates a query running counts on the given executor.
+     *
+     * @param entityManager      the shared entity manager, used for both queries
+     * @param domainClass        the entity class
+     * @param repository         the repository used for unpaged queries
+     * @param executor           the bounded executor running the count queries
+     * @param transactionManager the transaction manager starting the transactions of the count queries
+     */
+    public ConcurrentPageQuery(EntityManager entityManager,
+                               Class<E> domainClass,
+                               JpaSpecificationExecutor<E> repository,
+                               Executor executor,
+                               PlatformTransactionManager transactionManager) {
+        this.entityManager = Objects.requireNonNull(entityManager, "entityManager");
+        this.domainClass = Objects.requireNonNull(domainClass, "domainClass");
+        this.repository = Objects.requireNonNull(repository, "repository");
+        this.executor = Objects.requireNonNull(executor, "executor");
+        this.transactionManager = Objects.requireNonNull(transactionManager, "transactionManager");
+    }
+
+    /**
+     * Finds the page of entities matching the specification, counting the total concurrently.
+     *
+     * @param spec     the filter of the query
+     * @param pageable the window and sort of the page
+     * @return the page, with its total
+     */
+    public Page<E> findAll(Specification<E> spec, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return repository.findAll(spec, pageable);
+        }
+
+        Count total = new Count(spec);
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            TransactionTemplate transaction = newTransaction();
+            try {
+                executor.execute(() -> total.run(transaction));
+            } catch (RejectedExecutionException e) {
+                // Counted on the calling thread
+            }
+        }
+        try {
+            List<E> content = CriteriaQueries.select(entityManager, domainClass, spec, pageable.getSort(),
+                    pageable.getOffset(), pageable.getPageSize());
+            // Skips waiting for the count when the page reveals the total by itself
+            return PageableExecutionUtils.getPage(content, pageable, total::get);
+        } finally {
+            total.cancel();
+        }
+    }
+
+    /**
+     * Returns a new transaction with the settings of the transaction of the calling thread.
+     */
+    private TransactionTemplate newTransaction() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transaction.setReadOnly(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+        Integer isolationLevel = TransactionSynchronizationManager.getCurrentTransactionIsolationLevel();
+        if (isolationLevel != null) {
+            transaction.setIsolationLevel(isolationLevel);
+        }
+        return transaction;
+    }
+
+    /**
+     * The count of a page, claimed either by the executor or by the calling thread.
+     */
+    private final class Count {
+        private final Specification<E> spec;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private final CompletableFuture<Long> result = new CompletableFuture<>();
+        private volatile Session session;
+        private volatile boolean cancelled;
+
+        private Count(Specification<E> spec) {
+            this.spec = spec;
+        }
+
+        /**
+         * Runs the count on the executor, unless the calling thread claimed it first.
+         */
+        private void run(TransactionTemplate transaction) {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                result.complete(transaction.execute(status -> {
+                    session = entityManager.unwrap(Session.class);
+                    return cancelled ? 0L : CriteriaQueries.count(entityManager, domainClass, spec);
+                }));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            } finally {
+                session = null;
+            }
+        }
+
+        /**
+         * Returns the count, counting on the calling thread if the executor has not started it.
+         */
+        private long get() {
+            if (claimed.compareAndSet(false, true)) {
+                return CriteriaQueries.count(entityManager, domainClass, spec);
+            }
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        /**
+         * Keeps the executor from starting the count, or cancels its statement if it is running.
+         */
+        private void cancel() {
+            if (claimed.compareAndSet(false, true) || result.isDone()) {
+                return;
+            }
+            cancelled = true;
+            Session running = session;
+            if (running != null) {
+                try {
+                    running.cancelQuery();
+                } catch (RuntimeException e) {
+                    // The statement completed meanwhile
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package dev.femrek.reactadmindataprovider.jpa;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.hibernate.SessionFactory;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaCriteriaQuery;
+import org.hibernate.query.criteria.JpaDerivedRoot;
+import org.hibernate.query.criteria.JpaRoot;
+import org.hibernate.query.criteria.JpaSubQuery;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Shared building blocks for the criteria queries issued by this package.
+ */
+final class CriteriaQueries {
+    private static final String ID_ALIAS = "id";
+
+    private CriteriaQueries() {
+    }
+
+    /**
+     * Selects the entities matching the specification within the given window, without counting.
+     *
+     * @param entityManager the entity manager to run the query with
+     * @param domainClass   the entity class
+     * @param spec          the filter of the query
+     * @param sort          the sort of the query
+     * @param offset        the index of the first row
+     * @param maxResults    the maximum number of rows
+     * @param <E>           the entity type
+     * @return the matching entities
+     */
+    static <E> List<E> select(EntityManager entityManager,
+                              Class<E> domainClass,
+                              Specification<E> spec,
+                              Sort sort,
+                              long offset,
+                              int maxResults) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<E> query = criteriaBuilder.createQuery(domainClass);
+        Root<E> root = query.from(domainClass);
+        query.select(root);
+
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+        }
+
+        TypedQuery<E> typedQuery = ReadHints.applyTo(entityManager.createQuery(query));
+        typedQuery.setFirstResult(Math.toIntExact(offset));
+        typedQuery.setMaxResults(maxResults);
+        return typedQuery.getResultList();
+    }
+
+    /**
+     * Selects only the given attributes of the entities matching the specification within the given window. Each
+     * tuple element is aliased with its attribute name.
+     *
+     * @param entityManager the entity manager to run the query with
+     * @param domainClass   the entity class
+     * @param spec          the filter of the query
+     * @param attributes    the names of the attributes to select
+     * @param sort          the sort of the query
+     * @param offset        the index of the first row
+     * @param maxResults    the maximum number of rows
+     * @param <E>           the entity type
+     * @return the selected attribute values
+     */
+    static <E> List<Tuple> selectAttributes(EntityManager entityManager,
+                                            Class<E> domainClass,
+                                            Specification<E> spec,
+                                            List<String> attributes,
+                                            Sort sort,
+                                            long offset,
+                                            int maxResults) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<E> root = query.from(domainClass);
+        List<Selection<?>> selections = attributes.stream()
+                .<Selection<?>>map(attribute -> root.get(attribute).alias(attribute))
+                .toList();
+        query.multiselect(selections);
+
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+        }
+
+        TypedQuery<Tuple> typedQuery = ReadHints.applyTo(entityManager.createQuery(query));
+        typedQuery.setFirstResult(Math.toIntExact(offset));
+        typedQuery.setMaxResults(maxResults);
+        return typedQuery.getResultList();
+    }
+
+    /**
+     * Counts the entities matching the specification.
+     *
+     * @param entityManager the entity manager to run the query with
+     * @param domainClass   the entity class
+     * @param spec          the filter of the query
+     * @param <E>           the entity type
+     * @return the number of matching entities
+     */
+    static <E> long count(EntityManager entityManager, Class<E> domainClass, Specification<E> spec) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<E> root = query.from(domainClass);
+        query.select(criteriaBuilder.count(root));
+
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return ReadHints.applyTo(entityManager.createQuery(query)).getSingleResult();
+    }
+
+    /**
+     * Counts the entities matching the specification, up to the given limit.
+     * <p>
+     * The count runs in SQL over a subquery selecting the ids of at most {@code limit} matching rows, as in
+     * {@code SELECT count(id) FROM (SELECT id FROM ... FETCH FIRST :limit ROWS ONLY)}, so the database stops scanning
+     * once the limit is reached and only the count is sent back. Limits beyond {@link Integer#MAX_VALUE} and entities
+     * with a composite id are counted exactly.
+     *
+     * @param entityManager the entity manager to run the query with
+     * @param domainClass   the entity class
+     * @param spec          the filter of the query
+     * @param limit         the maximum count of interest
+     * @param <E>           the entity type
+     * @return the number of matching entities, at most {@code limit}
+     */
+    static <E> long countUpTo(EntityManager entityManager, Class<E> domainClass, Specification<E> spec, long limit) {
+        if (limit <= 0) {
+            return 0;
+        }
+        SingularAttribute<? super E, ?> idAttribute = idAttribute(entityManager, domainClass);
+        if (limit > Integer.MAX_VALUE || idAttribute == null) {
+            return Math.min(count(entityManager, domainClass, spec), limit);
+        }
+        HibernateCriteriaBuilder criteriaBuilder = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getCriteriaBuilder();
+        JpaCriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        JpaSubQuery<Tuple> window = query.subquery(Tuple.class);
+        JpaRoot<E> root = window.from(domainClass);
+        window.multiselect(root.get(idAttribute).alias(ID_ALIAS));
+
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            window.where(predicate);
+        }
+        window.fetch((int) limit);
+        JpaDerivedRoot<Tuple> ids = query.from(window);
+        query.select(criteriaBuilder.count(ids.get(ID_ALIAS)));
+        return ReadHints.applyTo(entityManager.createQuery(query)).getSingleResult();
+    }
+
+    /**
+     * Returns the id attribute of an entity, or null if its id is composite.
+     *
+     * @param entityManager the entity manager of the persistence unit managing the entity
+     * @param domainClass   the entity class
+     * @param <E>           the entity type
+     * @return the id attribute, or null
+     */
+    static <E> SingularAttribute<? super E, ?> idAttribute(EntityManager entityManager, Class<E> domainClass) {
+        EntityType<E> entityType = entityManager.getMetamodel().entity(domainClass);
+        return entityType.hasSingleIdAttribute() ? entityType.getId(entityType.getIdType().getJavaType()) : null;
+    }
+
+    /**
+     * Selects which of the given ids exist, as scalars, so that no entity is hydrated.
+     *
+     * @param entityManager the entity manager to run the query with
+     * @param domainClass   the entity class
+     * @param idAttribute   the id attribute of the entity
+     * @param ids           the candidate ids
+     * @param <E>           the entity type
+     * @param <ID>          the id type
+     * @return the ids that exist, in the order they were given
+     */
+    static <E, ID> List<ID> selectExistingIds(EntityManager entityManager,
+                                              Class<E> domainClass,
+                                              SingularAttribute<? super E, ?> idAttribute,
+                                              List<ID> ids) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object> query = criteriaBuilder.createQuery(Object.class);
+        Root<E> root = query.from(domainClass);
+        Path<?> id = root.get(idAttribute);
+        query.select(id).where(id.in(ids));
+
+        Set<Object> found = new HashSet<>(entityManager.createQuery(query).getResultList());
+        if (found.size() == ids.size()) {
+            return ids;
+        }
+        List<ID> existing = new ArrayList<>(found.size());
+        for (ID candidate : ids) {
+            if (found.contains(candidate)) {
+                existing.add(candidate);
+            }
+        }
+        return existing;
+    }
+}
@@ -0,0 +1,106 @@
+package dev.femrek.reactadmindataprovider.jpa;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Declares how a Response DTO is read straight from the columns of an entity, without loading the entity.
+ * <p>
+ * Every DTO field is mapped to an attribute path of the entity, by default the attribute of the same name:
+ * <pre>{@code
+ * private static final DtoProjection<Post, PostResponseDTO> PROJECTION = DtoProjection.of(Post.class, PostResponseDTO.class)
+ *         .field("id")
+ *         .field("title")
+ *         .field("authorName", "author.name");
+ * }</pre>
+ * {@link ProjectionQuery} runs the read queries with it. When the DTO has a public constructor taking the fields in the
+ * declared order, the rows are created by a constructor expression; otherwise the fields are selected as a tuple and
+ * set through the DTO setters. The associations along a path are left joined, so the field of an entity whose
+ * association is null is null. Sorts on DTO fields are translated to their attribute paths.
+ * <p>
+ * Instances are immutable.
+ *
+ * @param <E> the entity type
+ * @param <T> the Response DTO type
+ */
+public final class DtoProjection<E, T> {
+    private final Class<E> entityClass;
+    private final Class<T> dtoClass;
+    private final Map<String, String> fields;
+
+    private DtoProjection(Class<E> entityClass, Class<T> dtoClass, Map<String, String> fields) {
+        this.entityClass = entityClass;
+        this.dtoClass = dtoClass;
+        this.fields = fields;
+    }
+
+    /**
+     * Returns an empty projection. Add the fields with {@link #field(String)} and {@link #field(String, String)}.
+     *
+     * @param entityClass the entity the fields are read from
+     * @param dtoClass    the Response DTO the fields are read into
+     * @param <E>         the entity type
+     * @param <T>         the Response DTO type
+     * @return a projection without fields yet
+     */
+    public static <E, T> DtoProjection<E, T> of(Class<E> entityClass, Class<T> dtoClass) {
+        return new DtoProjection<>(Objects.requireNonNull(entityClass, "entityClass"),
+                Objects.requireNonNull(dtoClass, "dtoClass"), Map.of());
+    }
+
+    /**
+     * Returns a copy of this projection also reading the entity attribute of the same name into the given DTO field.
+     *
+     * @param dtoField the name of the DTO field and of the entity attribute
+     * @return the extended projection
+     */
+    public DtoProjection<E, T> field(String dtoField) {
+        return field(dtoField, dtoField);
+    }
+
+    /**
+     * Returns a copy of this projection also reading the given entity attribute path into the given DTO field.
+     *
+     * @param dtoField   the name of the DTO field
+     * @param entityPath the attribute path of the entity, dotted for embeddables and to-one associations
+     * @return the extended projection
+     */
+    public DtoProjection<E, T> field(String dtoField, String entityPath) {
+        Objects.requireNonNull(dtoField, "dtoField");
+        Objects.requireNonNull(entityPath, "entityPath");
+        Map<String, String> fields = new LinkedHashMap<>(this.fields);
+        fields.put(dtoField, entityPath);
+        return new DtoProjection<>(entityClass, dtoClass, Collections.unmodifiableMap(fields));
+    }
+
+    /**
+     * @return the entity the fields are read from
+     */
+    public Class<E> getEntityClass() {
+        return entityClass;
+    }
+
+    /**
+     * @return the Response DTO the fields are read into
+     */
+    public Class<T> getDtoClass() {
+        return dtoClass;
+    }
+
+    /**
+     * @return the entity attribute path of every DTO field, in the declared order
+     */
+    public Map<String, String> getFields() {
+        return fields;
+    }
+
+    /**
+     * @param dtoField the name of a DTO field
+     * @return the entity attribute path of the field, or the name itself if it is not mapped
+     */
+    public String toEntityPath(String dtoField) {
+        return fields.getOrDefault(dtoField, dtoField);
+    }
+}
@@ -0,0 +1,394 @@
+package dev.femrek.reactadmindataprovider.jpa;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Turns the filters of React Admin requests into JPA specifications, with the entity metamodel resolved only once.
+ * <p>
+ * At construction, every basic attribute of the entity becomes a filterable field holding its metamodel attribute and a
+ * converter from the query string value to the attribute type. Turning a filter map into a specification then only
+ * converts the values, and building the predicates needs neither string lookups nor reflection.
+ * <p>
+ * A filter named after a field matches by equality. json-server style suffixes select the other operators:
+ * <ul>
+ *     <li>{@code field_ne}: not equal</li>
+ *     <li>{@code field_gte} and {@code field_lte}: inclusive bounds, for comparable types</li>
+ *     <li>{@code field_like}: case-insensitive substring match, for string fields</li>
+ *     <li>{@code field_in}: any of the comma-separated values</li>
+ * </ul>
+ * The {@value #SEARCH_PARAM} filter is the global search: a case-insensitive substring match on any of the search
+ * fields given at construction. Empty values are ignored.
+ * <p>
+ * Each distinct filter shape, the set of filter names of a request, is compiled once into a template holding the
+ * resolved attribute, operator and converter of every filter, and kept in a bounded cache. A request then only
+ * converts its values. The values become bind parameters, so every request of a shape renders the same SQL.
+ *
+ * @param <E> the entity type
+ */
+public final class EntityFilters<E> {
+    /**
+     * The name of the global search filter.
+     */
+    public static final String SEARCH_PARAM = "q";
+
+    /**
+     * The default maximum number of filter shapes kept compiled.
+     */
+    public static final int DEFAULT_MAX_TEMPLATES = 256;
+
+    private static final ConversionService CONVERSION_SERVICE = DefaultConversionService.getSharedInstance();
+
+    private final Class<E> domainClass;
+    private final Map<String, FieldFilter<E>> fields;
+    private final List<SingularAttribute<? super E, String>> searchAttributes;
+    private final int maxTemplates;
+    private final Map<List<String>, FilterTemplate<E>> templates = new ConcurrentHashMap<>();
+
+    /**
+     * Resolves the filterable fields of an entity, keeping up to {@value #DEFAULT_MAX_TEMPLATES} filter shapes
+     * compiled.
+     *
+     * @param metamodel    the metamodel of the persistence unit managing the entity
+     * @param domainClass  the entity class
+     * @param searchFields the names of the string attributes matched by the global search
+     * @throws IllegalArgumentException if a search field is not a string attribute of the entity
+     */
+    public EntityFilters(Metamodel metamodel, Class<E> domainClass, Collection<String> searchFields) {
+        this(metamodel, domainClass, searchFields, DEFAULT_MAX_TEMPLATES);
+    }
+
+    /**
+     * Resolves the filterable fields of an entity.
+     *
+     * @param metamodel    the metamodel of the persistence unit managing the entity
+     * @param domainClass  the entity class
+     * @param searchFields the names of the string attributes matched by the global search
+     * @param maxTemplates the maximum number of filter shapes kept compiled
+     * @throws IllegalArgumentException if a search field is not a string attribute of the entity, or maxTemplates is
+     *                                  not positive
+     */
+    @SuppressWarnings("unchecked")
+    public EntityFilters(Metamodel metamodel, Class<E> domainClass, Collection<String> searchFields, int maxTemplates) {
+        if (maxTemplates < 1) {
+            throw new IllegalArgumentException("maxTemplates must be at least 1.");
+        }
+        this.domainClass = domainClass;
+        this.maxTemplates = maxTemplates;
+        EntityType<E> entityType = metamodel.entity(domainClass);
+
+        Map<String, FieldFilter<E>> fields = new LinkedHashMap<>();
+        for (SingularAttribute<? super E, ?> attribute : entityType.getSingularAttributes()) {
+            if (attribute.getPersistentAttributeType() != Attribute.PersistentAttributeType.BASIC) {
+                continue;
+            }
+            Function<String, Object> converter = converterFor(attribute.getJavaType());
+            if (converter != null) {
+                fields.put(attribute.getName(), new FieldFilter<>(attribute, converter));
+            }
+        }
+        this.fields = Collections.unmodifiableMap(fields);
+
+        List<SingularAttribute<? super E, String>> searchAttributes = new ArrayList<>();
+        for (String searchField : searchFields) {
+            FieldFilter<E> field = fields.get(searchField);
+            if (field == null || field.attribute.getJavaType() != String.class) {
+                throw new IllegalArgumentException(searchField + " is not a string attribute of "
+                        + domainClass.getSimpleName() + " and cannot be searched.");
+            }
+            searchAttributes.add((SingularAttribute<? super E, String>) field.attribute);
+        }
+        this.searchAttributes = List.copyOf(searchAttributes);
+    }
+
+    /**
+     * @return the names of the fields that can be filtered on
+     */
+    public Set<String> getFilterableFields() {
+        return fields.keySet();
+    }
+
+    /**
+     * Builds the specification matching all the given filters. The values are converted right away, so the
+     * specification holds no reference to the map and can be evaluated on any thread.
+     * <p>
+     * The template of the filter shape is taken from the cache, or compiled and cached on its first use. Its
+     * predicates are always combined in the same order, so equal shapes render the same SQL.
+     *
+     * @param filters the filters of the request, by name
+     * @return the specification
+     * @throws IllegalArgumentException if a filter is not a filterable field, its operator does not apply to the field
+     *                                  type or its value cannot be converted
+     */
+    public Specification<E> toSpecification(Map<String, String> filters) {
+        List<String> names = new ArrayList<>();
+        if (filters != null) {
+            filters.forEach((name, value) -> {
+                if (value != null && !value.isEmpty()) {
+                    names.add(name);
+                }
+            });
+        }
+        if (names.isEmpty()) {
+            return (root, query, criteriaBuilder) -> criteriaBuilder.conjunction();
+        }
+        Collections.sort(names);
+
+        FilterTemplate<E> template = template(List.copyOf(names));
+        String[] values = new String[names.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = filters.get(names.get(i));
+        }
+        return template.bind(values);
+    }
+
+    /**
+     * @return the number of filter shapes currently compiled
+     */
+    public int getTemplateCount() {
+        return templates.size();
+    }
+
+    private FilterTemplate<E> template(List<String> names) {
+        FilterTemplate<E> template = templates.get(names);
+        if (template != null) {
+            return template;
+        }
+        // Compiling fails on invalid filters, so only valid shapes take room in the cache
+        template = compile(names);
+        if (templates.size() >= maxTemplates) {
+            evict();
+        }
+        FilterTemplate<E> previous = templates.putIfAbsent(names, template);
+        return previous != null ? previous : template;
+    }
+
+    private void evict() {
+        Iterator<List<String>> keys = templates.keySet().iterator();
+        while (templates.size() >= maxTemplates && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private FilterTemplate<E> compile(List<String> names) {
+        List<Condition<E>> conditions = new ArrayList<>(names.size());
+        for (String name : names) {
+            conditions.add(SEARCH_PARAM.equals(name) ? search() : condition(name));
+        }
+        return new FilterTemplate<>(conditions);
+    }
+
+    /**
+     * Resolves a filter name to its field and operator. A field whose name ends like an operator suffix is matched
+     * by its full name first.
+     */
+    private Condition<E> condition(String name) {
+        FieldFilter<E> field = fields.get(name);
+        if (field != null) {
+            return field.condition(Operator.EQ);
+        }
+        for (Operator operator : Operator.SUFFIXED) {
+            if (name.endsWith(operator.suffix)) {
+                field = fields.get(name.substring(0, name.length() - operator.suffix.length()));
+                if (field != null) {
+                    return field.condition(operator);
+                }
+            }
+        }
+        throw new IllegalArgumentException(name + " is not a filterable field of " + domainClass.getSimpleName());
+    }
+
+    private Condition<E> search() {
+        return new Condition<>(
+                value -> "%" + value.toLowerCase(Locale.ROOT) + "%",
+                (root, criteriaBuilder, pattern) -> {
+                    Predicate[] matches = new Predicate[searchAttributes.size()];
+                    for (int i = 0; i < matches.length; i++) {
+                        matches[i] = criteriaBuilder.like(
+                                criteriaBuilder.lower(root.get(searchAttributes.get(i))), (String) pattern);
+                    }
+                    return criteriaBuilder.or(matches);
+                });
+    }
+
+    /**
+     * Returns the converter from query string values to the given attribute type, or null if there is none.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Function<String, Object> converterFor(Class<?> javaType) {
+        Class<?> type = ClassUtils.resolvePrimitiveIfNecessary(javaType);
+        if (type == String.class) {
+            return value -> value;
+        }
+        if (type.isEnum()) {
+            return value -> Enum.valueOf((Class<? extends Enum>) type, value);
+        }
+        if (!CONVERSION_SERVICE.canConvert(String.class, type)) {
+            return null;
+        }
+        return value -> CONVERSION_SERVICE.convert(value, type);
+    }
+
+    /**
+     * A filterable field: its attribute and the converter of its values.
+     */
+    private static final class FieldFilter<E> {
+        private final SingularAttribute<? super E, ?> attribute;
+        private final Function<String, Object> converter;
+
+        private FieldFilter(SingularAttribute<? super E, ?> attribute, Function<String, Object> converter) {
+            this.attribute = attribute;
+            this.converter = converter;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Condition<E> condition(Operator operator) {
+            Class<?> type = ClassUtils.resolvePrimitiveIfNecessary(attribute.getJavaType());
+            switch (operator) {
+                case EQ:
+                    return new Condition<>(this::convert,
+                            (root, criteriaBuilder, value) -> criteriaBuilder.equal(root.get(attribute), value));
+                case NE:
+                    return new Condition<>(this::convert,
+                            (root, criteriaBuilder, value) -> criteriaBuilder.notEqual(root.get(attribute), value));
+                case GTE:
+                    requireComparable(type, operator);
+                    return new Condition<>(this::convert, (root, criteriaBuilder, value) ->
+                            criteriaBuilder.greaterThanOrEqualTo((Path<Comparable>) root.get(attribute), (Comparable) value));
+                case LTE:
+                    requireComparable(type, operator);
+                    return new Condition<>(this::convert, (root, criteriaBuilder, value) ->
+                            criteriaBuilder.lessThanOrEqualTo((Path<Comparable>) root.get(attribute), (Comparable) value));
+                case LIKE:
+                    if (type != String.class) {
+                        throw unsupported(operator);
+                    }
+                    return new Condition<>(value -> "%" + value.toLowerCase(Locale.ROOT) + "%",
+                            (root, criteriaBuilder, pattern) -> criteriaBuilder.like(
+                                    criteriaBuilder.lower((Path<String>) root.get(attribute)), (String) pattern));
+                case IN:
+                    return new Condition<>(this::convertAll,
+                            (root, criteriaBuilder, values) -> root.get(attribute).in((List<?>) values));
+                default:
+                    throw unsupported(operator);
+            }
+        }
+
+        private void requireComparable(Class<?> type, Operator operator) {
+            if (!Comparable.class.isAssignableFrom(type)) {
+                throw unsupported(operator);
+            }
+        }
+
+        private IllegalArgumentException unsupported(Operator operator) {
+            return new IllegalArgumentException("The " + operator.suffix + " operator cannot be applied to "
+                    + attribute.getName() + " of type " + attribute.getJavaType().getSimpleName());
+        }
+
+        private Object convertAll(String values) {
+            List<Object> converted = new ArrayList<>();
+            for (String value : values.split(",")) {
+                converted.add(convert(value));
+            }
+            return converted;
+        }
+
+        private Object convert(String value) {
+            try {
+                return converter.apply(value);
+            } catch (ConversionException | IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid value for filter " + attribute.getName() + ": " + value, e);
+            }
+        }
+    }
+
+    /**
+     * The comparison operators, selected by the suffix of the filter name. Equality has no suffix.
+     */
+    private enum Operator {
+        EQ(""),
+        NE("_ne"),
+        GTE("_gte"),
+        LTE("_lte"),
+        LIKE("_like"),
+        IN("_in");
+
+        private static final List<Operator> SUFFIXED = List.of(NE, GTE, LTE, LIKE, IN);
+
+        private final String suffix;
+
+        Operator(String suffix) {
+            this.suffix = suffix;
+        }
+    }
+
+    /**
+     * One filter of a template: the converter of its query string value and the predicate of the converted value.
+     */
+    private static final class Condition<E> {
+        private final Function<String, Object> converter;
+        private final ConditionPredicate<E> predicate;
+
+        private Condition(Function<String, Object> converter, ConditionPredicate<E> predicate) {
+            this.converter = converter;
+            this.predicate = predicate;
+        }
+    }
+
+    /**
+     * The specification of a filter shape, compiled once: its conditions, in the order of the sorted filter names.
+     */
+    private static final class FilterTemplate<E> {
+        private final List<Condition<E>> conditions;
+
+        private FilterTemplate(List<Condition<E>> conditions) {
+            this.conditions = List.copyOf(conditions);
+        }
+
+        private Specification<E> bind(String[] values) {
+            Object[] converted = new Object[values.length];
+            for (int i = 0; i < converted.length; i++) {
+                converted[i] = conditions.get(i).converter.apply(values[i]);
+            }
+            return (root, query, criteriaBuilder) -> {
+                Predicate[] predicates = new Predicate[converted.length];
+                for (int i = 0; i < predicates.length; i++) {
+                    predicates[i] = conditions.get(i).predicate.toPredicate(root, criteriaBuilder, converted[i]);
+                }
+                return predicates.length == 1 ? predicates[0] : criteriaBuilder.and(predicates);
+            };
+        }
+    }
+
+    /**
+     * The predicate of a condition, given its converted value.
+     */
+    @FunctionalInterface
+    private interface ConditionPredicate<E> {
+        Predicate toPredicate(Root<E> root, CriteriaBuilder criteriaBuilder, Object value);
+    }
+}
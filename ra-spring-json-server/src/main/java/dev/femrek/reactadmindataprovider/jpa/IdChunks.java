@@ -0,0 +1,146 @@
+package dev.femrek.reactadmindataprovider.jpa;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Splits id lists into chunks that fit in a single {@code IN} list of the database, and pads them to a few bucket sizes
+ * so that the statements of the chunks are reused.
+ */
+final class IdChunks {
+    /**
+     * The chunk size when the database does not report any limit, which every supported database accepts.
+     */
+    static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    private IdChunks() {
+    }
+
+    /**
+     * Returns the largest chunk size accepted by the database of the entity manager, within the given maximum. Both
+     * the limit of {@code IN} list elements and the limit of bind parameters per statement are honored.
+     *
+     * @param entityManager      the entity manager to run the statements with
+     * @param otherParameters    the number of bind parameters of the statement besides the ids
+     * @param maxChunkSize       the maximum chunk size
+     * @return the chunk size, at least 1
+     */
+    static int chunkSize(EntityManager entityManager, int otherParameters, int maxChunkSize) {
+        int size = maxChunkSize;
+        Dialect dialect = dialectOf(entityManager);
+        if (dialect != null) {
+            if (dialect.getInExpressionCountLimit() > 0) {
+                size = Math.min(size, dialect.getInExpressionCountLimit());
+            }
+            if (dialect.getParameterCountLimit() > 0) {
+                size = Math.min(size, dialect.getParameterCountLimit() - otherParameters);
+            }
+        }
+        return Math.max(size, 1);
+    }
+
+    /**
+     * Splits the distinct ids into chunks of at most the given size, keeping their order.
+     *
+     * @param ids       the ids
+     * @param chunkSize the maximum size of a chunk
+     * @param <ID>      the id type
+     * @return the chunks
+     */
+    static <ID> List<List<ID>> split(Collection<ID> ids, int chunkSize) {
+        List<ID> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<List<ID>> chunks = new ArrayList<>((distinct.size() + chunkSize - 1) / chunkSize);
+        for (int from = 0; from < distinct.size(); from += chunkSize) {
+            chunks.add(distinct.subList(from, Math.min(from + chunkSize, distinct.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * Pads a chunk of ids to the next power of two, within the given maximum, by repeating its last id. The
+     * {@code IN} lists then take one of a few lengths, and every length maps to a single SQL string: the query plans
+     * and the prepared statements of the driver are reused instead of being created for every list length.
+     *
+     * @param chunk     the distinct ids
+     * @param maxBucket the largest bucket size
+     * @param <ID>      the id type
+     * @return the padded ids, or the chunk itself if it already fills its bucket
+     */
+    static <ID> List<ID> pad(List<ID> chunk, int maxBucket) {
+        int size = chunk.size();
+        if (size < 2) {
+            return chunk;
+        }
+        int bucket = Math.min(Integer.highestOneBit(size - 1) << 1, maxBucket);
+        if (bucket <= size) {
+            return chunk;
+        }
+        List<ID> padded = new ArrayList<>(bucket);
+        padded.addAll(chunk);
+        ID last = chunk.get(size - 1);
+        while (padded.size() < bucket) {
+            padded.add(last);
+        }
+        return padded;
+    }
+
+    /**
+     * Fetches the rows of the given ids with padded chunks of at most the given bucket size, one after the other on
+     * the entity manager of the calling thread. The chunks then share its transaction, its connection and its
+     * persistence context.
+     *
+     * @param entityManager the entity manager of the calling thread
+     * @param ids           the ids
+     * @param maxBucket     the largest bucket size, lowered to the limits of the database
+     * @param fetch         fetches the rows of a padded chunk
+     * @param <ID>          the id type
+     * @param <R>           the row type
+     * @return the rows of all chunks, in the order of the chunks
+     */
+    static <ID, R> List<R> fetch(EntityManager entityManager,
+                                 Collection<ID> ids,
+                                 int maxBucket,
+                                 Function<List<ID>, List<R>> fetch) {
+        return fetch(ids, chunkSize(entityManager, 0, maxBucket), fetch);
+    }
+
+    /**
+     * Fetches the rows of the given ids with padded chunks of at most the given bucket size, one after the other.
+     *
+     * @param ids    the ids
+     * @param bucket the largest bucket size
+     * @param fetch  fetches the rows of a padded chunk
+     * @param <ID>   the id type
+     * @param <R>    the row type
+     * @return the rows of all chunks, in the order of the chunks
+     */
+    static <ID, R> List<R> fetch(Collection<ID> ids, int bucket, Function<List<ID>, List<R>> fetch) {
+        List<R> rows = new ArrayList<>(ids.size());
+        for (List<ID> chunk : split(ids, bucket)) {
+            rows.addAll(fetch.apply(pad(chunk, bucket)));
+        }
+        return rows;
+    }
+
+    /**
+     * Returns the Hibernate dialect of the entity manager, or null if the JPA provider is not Hibernate.
+     */
+    static Dialect dialectOf(EntityManager entityManager) {
+        try {
+            return entityManager.getEntityManagerFactory()
+                    .unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices()
+                    .getDialect();
+        } catch (PersistenceException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package dev.femrek.reactadmindataprovider.jpa;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.SingularAttribute;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Finds entities by id with {@code IN} lists padded to power-of-two buckets.
+ * <p>
+ * Every distinct number of ids yields another SQL string, so a getMany per list length defeats both the query plan
+ * cache of Hibernate and the statement cache of the driver. This query pads the list by repeating its last id, up to
+ * the next power of two: a few statements then serve every length. Lists larger than the largest bucket are split into
+ * chunks of that size, which are fetched one after the other with the entity manager of the calling thread.
+ * <p>
+ * Use it from {@link dev.femrek.reactadmindataprovider.service.IRAService#findAllById}:
+ * <pre>{@code
+ * public List<PostResponseDTO> findAllById(Iterable<Long> ids) {
+ *     List<Long> idList = new ArrayList<>();
+ *     ids.forEach(idList::add);
+ *     return idListQuery.findAll(idList, this::toResponseDTO);
+ * }
+ * }</pre>
+ * The mapper runs while the entity manager is open, so it may initialize lazy associations.
+ *
+ * @param <E> the entity type
+ */
+public final class IdListQuery<E> {
+    /**
+     * The largest bucket by default. Larger lists are split into chunks.
+     */
+    public static final int DEFAULT_MAX_BUCKET = 512;
+
+    private final EntityManager entityManager;
+    private final Class<E> domainClass;
+    private final int maxBucket;
+    private final SingularAttribute<? super E, ?> idAttribute;
+
+    /**
+     * Creates the query with buckets of at most {@value #DEFAULT_MAX_BUCKET} ids.
+     *
+     * @param entityManager the entity manager of the calling thread
+     * @param domainClass   the entity class
+     */
+    public IdListQuery(EntityManager entityManager, Class<E> domainClass) {
+        this(entityManager, domainClass, DEFAULT_MAX_BUCKET);
+    }
+
+    /**
+     * @param entityManager the entity manager of the calling thread
+     * @param domainClass   the entity class
+     * @param maxBucket     the largest bucket size, lowered to the limits of the database
+     * @throws IllegalArgumentException if maxBucket is not positive
+     */
+    public IdListQuery(EntityManager entityManager, Class<E> domainClass, int maxBucket) {
+        if (maxBucket < 1) {
+            throw new IllegalArgumentException("maxBucket must be at least 1.");
+        }
+        this.entityManager = Objects.requireNonNull(entityManager, "entityManager");
+        this.domainClass = Objects.requireNonNull(domainClass, "domainClass");
+        this.maxBucket = maxBucket;
+        this.idAttribute = CriteriaQueries.idAttribute(entityManager, domainClass);
+    }
+
+    /**
+     * @return whether the entity has a single id attribute, which this query requires
+     */
+    public boolean isSupported() {
+        return idAttribute != null;
+    }
+
+    /**
+     * Finds the entities with the given ids and maps them.
+     *
+     * @param ids    the ids of the entities
+     * @param mapper maps an entity, while the entity manager is open
+     * @param <T>    the mapped type
+     * @return the mapped entities that exist, in no particular order
+     * @throws UnsupportedOperationException if the entity has a composite id
+     */
+    public <T> List<T> findAll(Collection<?> ids, Function<? super E, ? extends T> mapper) {
+        if (idAttribute == null) {
+            throw new UnsupportedOperationException(
+                    "Id list queries require a single id attribute on " + domainClass.getSimpleName());
+        }
+        Objects.requireNonNull(mapper, "mapper");
+        return IdChunks.fetch(entityManager, ids, maxBucket, chunk -> {
+            List<E> entities = select(chunk);
+            List<T> rows = new ArrayList<>(entities.size());
+            for (E entity : entities) {
+                rows.add(mapper.apply(entity));
+            }
+            return rows;
+        });
+    }
+
+    private List<E> select(List<?> chunk) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<E> query = criteriaBuilder.createQuery(domainClass);
+        Root<E> root = query.from(domainClass);
+        query.select(root).where(root.get(idAttribute).in(chunk));
+        return ReadHints.applyTo(entityManager.createQuery(query)).getResultList();
+    }
+}
@@ -0,0 +1,66 @@
+package dev.femrek.reactadmindataprovider.jpa;
+
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.SequenceGenerator;
+
+/**
+ * Base class of entities whose {@code Long} ids are allocated in pools instead of by {@code IDENTITY} columns.
+ * <p>
+ * An {@code IDENTITY} id is only known once its row is inserted, so Hibernate inserts such entities one by one as soon
+ * as they are persisted, and JDBC batching is silently disabled. Entities extending this class draw their ids from the
+ * {@value #SEQUENCE} sequence, which Hibernate reads once per {@value #ALLOCATION_SIZE} ids with its pooled optimizer:
+ * the inserts are then deferred to the flush and sent in batches, as
+ * {@link dev.femrek.reactadmindataprovider.service.RAJpaService#createMany} does.
+ * <pre>{@code
+ * @Entity
+ * @Table(name = "users")
+ * public class User extends PooledIdEntity {
+ *     private String name;
+ *     ...
+ * }
+ * }</pre>
+ * On databases without sequences, Hibernate emulates the sequence with a table. Set
+ * {@code hibernate.id.optimizer.pooled.preferred=pooled-lo} for hi/lo allocation, where the sequence value is the low
+ * end of the pool rather than its high end. The sequence is shared by all extending entities, so their ids are unique
+ * across resources.
+ */
+@MappedSuperclass
+public abstract class PooledIdEntity {
+    /**
+     * The name of the id generator.
+     */
+    public static final String GENERATOR = "ra_pooled_id";
+
+    /**
+     * The name of the database sequence the ids are drawn from.
+     */
+    public static final String SEQUENCE = "ra_id_seq";
+
+    /**
+     * The number of ids allocated per sequence read, matching the default JDBC batch size of
+     * {@link dev.femrek.reactadmindataprovider.service.RAJpaService#createMany}.
+     */
+    public static final int ALLOCATION_SIZE = 50;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = GENERATOR)
+    @SequenceGenerator(name = GENERATOR, sequenceName = SEQUENCE, allocationSize = ALLOCATION_SIZE)
+    private Long id;
+
+    /**
+     * @return the id, or null until the entity is persisted
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * @param id the id
+     */
+    public void setId(Long id) {
+        this.id = id;
+    }
+}
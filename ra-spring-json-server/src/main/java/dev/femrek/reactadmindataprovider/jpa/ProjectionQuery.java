@@ -0,0 +1,357 @@
+package dev.femrek.reactadmindataprovider.jpa;
+
+import dev.femrek.reactadmindataprovider.patch.FieldPatcher;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Runs the read queries of a resource as projections into its Response DTO, following a {@link DtoProjection}.
+ * <p>
+ * Only the mapped columns are selected, and the rows go straight into the DTOs: no entity is instantiated, snapshotted
+ * for dirty checking or registered in the persistence context. Use it from the read methods of
+ * {@link dev.femrek.reactadmindataprovider.service.IRAService}:
+ * <pre>{@code
+ * private final ProjectionQuery<Post, PostResponseDTO> projectionQuery;
+ *
+ * public PostService(EntityManager entityManager) {
+ *     this.projectionQuery = new ProjectionQuery<>(entityManager, PROJECTION);
+ * }
+ *
+ * public Slice<PostResponseDTO> findSliceWithFilters(Map<String, String> filters, Pageable pageable) {
+ *     return projectionQuery.findSlice(toSpecification(filters), pageable);
+ * }
+ * }</pre>
+ * The mapping is resolved against the metamodel when the query is created: every attribute path must exist and end
+ * with a basic or embedded attribute, and the DTO must either have a public constructor taking the fields in the
+ * declared order or a no-argument constructor with a setter per field.
+ *
+ * @param <E> the entity type
+ * @param <T> the Response DTO type
+ */
+public final class ProjectionQuery<E, T> {
+    private final EntityManager entityManager;
+    private final DtoProjection<E, T> projection;
+    private final SingularAttribute<? super E, ?> idAttribute;
+    private final boolean constructorExpression;
+    private final Constructor<T> noArgConstructor;
+    private final FieldPatcher<T> dtoPatcher;
+
+    /**
+     * @param entityManager the entity manager to run the queries with
+     * @param projection    the mapping of the DTO fields to entity attributes
+     * @throws IllegalArgumentException if the projection has no field, an attribute path does not exist or ends with
+     *                                  an association, or the DTO can be created neither way
+     */
+    public ProjectionQuery(EntityManager entityManager, DtoProjection<E, T> projection) {
+        this.entityManager = Objects.requireNonNull(entityManager, "entityManager");
+        this.projection = Objects.requireNonNull(projection, "projection");
+        if (projection.getFields().isEmpty()) {
+            throw new IllegalArgumentException("The projection into " + projection.getDtoClass().getSimpleName()
+                    + " has no field.");
+        }
+        this.idAttribute = CriteriaQueries.idAttribute(entityManager, projection.getEntityClass());
+
+        List<Class<?>> fieldTypes = new ArrayList<>();
+        for (String entityPath : projection.getFields().values()) {
+            fieldTypes.add(resolveType(entityManager.getMetamodel(), projection.getEntityClass(), entityPath));
+        }
+        this.constructorExpression = hasConstructor(projection.getDtoClass(), fieldTypes);
+        Constructor<T> noArgConstructor = null;
+        FieldPatcher<T> dtoPatcher = null;
+        try {
+            noArgConstructor = projection.getDtoClass().getConstructor();
+            dtoPatcher = FieldPatcher.of(projection.getDtoClass(), projection.getFields().keySet());
+        } catch (NoSuchMethodException | IllegalArgumentException e) {
+            if (!constructorExpression) {
+                throw new IllegalArgumentException(projection.getDtoClass().getSimpleName()
+                        + " has neither a constructor taking the projected fields nor a no-argument constructor"
+                        + " with a setter per field.", e);
+            }
+            noArgConstructor = null;
+        }
+        this.noArgConstructor = noArgConstructor;
+        this.dtoPatcher = dtoPatcher;
+    }
+
+    /**
+     * Finds the window of DTOs matching the specification, without any count query.
+     *
+     * @param spec     the filter of the query
+     * @param pageable the window and sort of the slice, sorted by DTO fields; must be paged
+     * @return the slice, knowing whether a next one exists
+     */
+    public Slice<T> findSlice(Specification<E> spec, Pageable pageable) {
+        return findSlice(spec, pageable, projection.getFields(), constructorExpression);
+    }
+
+    /**
+     * Finds the window of DTOs matching the specification, selecting only the requested DTO fields; the other DTO
+     * properties keep their default values. Requested fields that are not part of the projection are ignored.
+     * <p>
+     * The requested fields are set through the DTO setters, so a DTO without a no-argument constructor and a setter
+     * per field is always read with every projected field.
+     *
+     * @param spec     the filter of the query
+     * @param pageable the window and sort of the slice, sorted by DTO fields; must be paged
+     * @param fields   the names of the DTO fields to read; empty for all of them
+     * @return the slice, knowing whether a next one exists
+     */
+    public Slice<T> findSlice(Specification<E> spec, Pageable pageable, Collection<String> fields) {
+        Map<String, String> selected = new LinkedHashMap<>();
+        projection.getFields().forEach((dtoField, entityPath) -> {
+            if (fields.contains(dtoField)) {
+                selected.put(dtoField, entityPath);
+            }
+        });
+        if (selected.isEmpty() || selected.size() == projection.getFields().size() || noArgConstructor == null) {
+            return findSlice(spec, pageable);
+        }
+        return findSlice(spec, pageable, selected, false);
+    }
+
+    private Slice<T> findSlice(Specification<E> spec,
+                               Pageable pageable,
+                               Map<String, String> fields,
+                               boolean construct) {
+        int pageSize = pageable.getPageSize();
+        List<T> rows = select(spec, fields, construct, pageable.getSort(), pageable.getOffset(), pageSize + 1);
+        boolean hasNext = rows.size() > pageSize;
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageSize) : rows, pageable, hasNext);
+    }
+
+    /**
+     * Finds the page of DTOs matching the specification, with its total. The count query is skipped when the page is
+     * the last one.
+     *
+     * @param spec     the filter of the query
+     * @param pageable the window and sort of the page, sorted by DTO fields
+     * @return the page, with its total
+     */
+    public Page<T> findAll(Specification<E> spec, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            List<T> rows = select(spec, pageable.getSort(), 0, Integer.MAX_VALUE);
+            return new PageImpl<>(rows, pageable, rows.size());
+        }
+        List<T> rows = select(spec, pageable.getSort(), pageable.getOffset(), pageable.getPageSize());
+        if (rows.size() < pageable.getPageSize() && (pageable.getOffset() == 0 || !rows.isEmpty())) {
+            return new PageImpl<>(rows, pageable, pageable.getOffset() + rows.size());
+        }
+        long total = CriteriaQueries.count(entityManager, projection.getEntityClass(), spec);
+        return new PageImpl<>(rows, pageable, total);
+    }
+
+    /**
+     * Finds the DTO of the entity with the given id.
+     *
+     * @param id the id of the entity
+     * @return the DTO, or empty if there is no such entity
+     * @throws UnsupportedOperationException if the entity has a composite id
+     */
+    public Optional<T> findById(Object id) {
+        List<T> rows = select(idIn(List.of(id)), Sort.unsorted(), 0, 1);
+        return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+    }
+
+    /**
+     * Finds the DTOs of the entities with the given ids, padding the {@code IN} list to a power-of-two bucket as
+     * {@link IdListQuery} does. Lists larger than {@value IdListQuery#DEFAULT_MAX_BUCKET} ids are split into chunks
+     * fetched one after the other.
+     *
+     * @param ids the ids of the entities
+     * @return the DTOs of the entities that exist, in no particular order
+     * @throws UnsupportedOperationException if the entity has a composite id
+     */
+    public List<T> findAllById(Collection<?> ids) {
+        requireIdAttribute();
+        return IdChunks.fetch(entityManager, ids, IdListQuery.DEFAULT_MAX_BUCKET,
+                chunk -> select(idIn(chunk), Sort.unsorted(), 0, Integer.MAX_VALUE));
+    }
+
+    private Specification<E> idIn(Collection<?> ids) {
+        requireIdAttribute();
+        return (root, query, criteriaBuilder) -> root.get(idAttribute).in(ids);
+    }
+
+    private void requireIdAttribute() {
+        if (idAttribute == null) {
+            throw new UnsupportedOperationException("Projections by id require a single id attribute on "
+                    + projection.getEntityClass().getSimpleName());
+        }
+    }
+
+    private List<T> select(Specification<E> spec, Sort sort, long offset, int maxResults) {
+        return select(spec, projection.getFields(), constructorExpression, sort, offset, maxResults);
+    }
+
+    private List<T> select(Specification<E> spec,
+                           Map<String, String> fields,
+                           boolean construct,
+                           Sort sort,
+                           long offset,
+                           int maxResults) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        Class<E> entityClass = projection.getEntityClass();
+        if (construct) {
+            CriteriaQuery<T> query = criteriaBuilder.createQuery(projection.getDtoClass());
+            Root<E> root = query.from(entityClass);
+            query.select(criteriaBuilder.construct(projection.getDtoClass(), selections(root, fields, false)));
+            restrict(criteriaBuilder, query, root, spec, sort);
+            return window(entityManager.createQuery(query), offset, maxResults).getResultList();
+        }
+
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<E> root = query.from(entityClass);
+        query.multiselect(selections(root, fields, true));
+        restrict(criteriaBuilder, query, root, spec, sort);
+        List<Tuple> tuples = window(entityManager.createQuery(query), offset, maxResults).getResultList();
+
+        List<T> rows = new ArrayList<>(tuples.size());
+        Map<String, Object> values = new HashMap<>();
+        for (Tuple tuple : tuples) {
+            for (String dtoField : fields.keySet()) {
+                values.put(dtoField, tuple.get(dtoField));
+            }
+            T dto = BeanUtils.instantiateClass(noArgConstructor);
+            dtoPatcher.apply(dto, values);
+            rows.add(dto);
+        }
+        return rows;
+    }
+
+    private Selection<?>[] selections(Root<E> root, Map<String, String> fields, boolean aliased) {
+        List<Selection<?>> selections = new ArrayList<>();
+        Map<String, Join<?, ?>> joins = new HashMap<>();
+        fields.forEach((dtoField, entityPath) -> {
+            Path<?> path = path(root, entityPath, joins);
+            selections.add(aliased ? path.alias(dtoField) : path);
+        });
+        return selections.toArray(new Selection<?>[0]);
+    }
+
+    private void restrict(CriteriaBuilder criteriaBuilder,
+                          CriteriaQuery<?> query,
+                          Root<E> root,
+                          Specification<E> spec,
+                          Sort sort) {
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (sort.isSorted()) {
+            Sort entitySort = Sort.by(sort.stream()
+                    .map(order -> order.withProperty(projection.toEntityPath(order.getProperty())))
+                    .toList());
+            query.orderBy(QueryUtils.toOrders(entitySort, root, criteriaBuilder));
+        }
+    }
+
+    private static <R> TypedQuery<R> window(TypedQuery<R> query, long offset, int maxResults) {
+        ReadHints.applyTo(query);
+        query.setFirstResult(Math.toIntExact(offset));
+        if (maxResults != Integer.MAX_VALUE) {
+            query.setMaxResults(maxResults);
+        }
+        return query;
+    }
+
+    /**
+     * Resolves an attribute path, left joining its associations so that rows whose associations are null are still
+     * selected, as they are counted. The joins are shared by the paths with the same prefix.
+     */
+    private Path<?> path(Root<?> root, String entityPath, Map<String, Join<?, ?>> joins) {
+        String[] segments = entityPath.split("\\.");
+        Path<?> path = root;
+        StringBuilder prefix = new StringBuilder();
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            prefix.append(i == 0 ? "" : ".").append(segment);
+            if (i < segments.length - 1 && path instanceof From<?, ?> from && isAssociation(from, segment)) {
+                path = joins.computeIfAbsent(prefix.toString(), key -> from.join(segment, JoinType.LEFT));
+            } else {
+                path = path.get(segment);
+            }
+        }
+        return path;
+    }
+
+    private boolean isAssociation(From<?, ?> from, String attributeName) {
+        Attribute<?, ?> attribute = entityManager.getMetamodel().managedType(from.getJavaType())
+                .getAttribute(attributeName);
+        return attribute.isAssociation();
+    }
+
+    /**
+     * Resolves the Java type at the end of an attribute path, which must not be an association.
+     */
+    private static Class<?> resolveType(Metamodel metamodel, Class<?> entityClass, String entityPath) {
+        Class<?> type = entityClass;
+        Attribute<?, ?> attribute = null;
+        for (String segment : entityPath.split("\\.")) {
+            ManagedType<?> managedType;
+            try {
+                managedType = metamodel.managedType(type);
+                attribute = managedType.getAttribute(segment);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(entityPath + " is not an attribute path of "
+                        + entityClass.getSimpleName(), e);
+            }
+            type = attribute.getJavaType();
+        }
+        if (attribute.isAssociation() || attribute.isCollection()) {
+            throw new IllegalArgumentException(entityPath + " of " + entityClass.getSimpleName()
+                    + " is an association and cannot be projected.");
+        }
+        return type;
+    }
+
+    private static boolean hasConstructor(Class<?> dtoClass, List<Class<?>> fieldTypes) {
+        for (Constructor<?> constructor : dtoClass.getConstructors()) {
+            Class<?>[] parameterTypes = constructor.getParameterTypes();
+            if (parameterTypes.length != fieldTypes.size()) {
+                continue;
+            }
+            boolean matches = true;
+            for (int i = 0; i < parameterTypes.length && matches; i++) {
+                matches = ClassUtils.isAssignable(parameterTypes[i], fieldTypes.get(i));
+            }
+            if (matches) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,69 @@
+package dev.femrek.reactadmindataprovider.jpa;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.Objects;
+
+/**
+ * Publishes the query plan cache statistics of Hibernate, which show how well the padded {@code IN} lists of
+ * {@link IdListQuery} and the filter templates of {@link EntityFilters} reuse their plans:
+ * <ul>
+ *     <li>{@code ra.query.plan.cache.hits} and {@code ra.query.plan.cache.misses}, the counts of lookups</li>
+ *     <li>{@code ra.query.plan.cache.hit.ratio}, the share of lookups that hit the cache</li>
+ * </ul>
+ * Hibernate only gathers statistics with {@code hibernate.generate_statistics=true}; otherwise the counters stay at 0 and
+ * the ratio is {@code NaN}.
+ */
+public class QueryPlanCacheMetrics implements MeterBinder {
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+
+    /**
+     * @param entityManagerFactory the entity manager factory whose statistics are published, if any
+     */
+    public QueryPlanCacheMetrics(ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        this.entityManagerFactory = Objects.requireNonNull(entityManagerFactory, "entityManagerFactory");
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Statistics statistics = statistics();
+        if (statistics == null) {
+            return;
+        }
+        FunctionCounter.builder("ra.query.plan.cache.hits", statistics, Statistics::getQueryPlanCacheHitCount)
+                .description("Lookups of query plans that hit the cache")
+                .register(registry);
+        FunctionCounter.builder("ra.query.plan.cache.misses", statistics, Statistics::getQueryPlanCacheMissCount)
+                .description("Lookups of query plans that missed the cache")
+                .register(registry);
+        Gauge.builder("ra.query.plan.cache.hit.ratio", statistics, QueryPlanCacheMetrics::hitRatio)
+                .description("Share of the lookups of query plans that hit the cache")
+                .register(registry);
+    }
+
+    private Statistics statistics() {
+        EntityManagerFactory factory = entityManagerFactory.getIfUnique();
+        if (factory == null) {
+            return null;
+        }
+        try {
+            return factory.unwrap(SessionFactory.class).getStatistics();
+        } catch (PersistenceException e) {
+            return null;
+        }
+    }
+
+    private static double hitRatio(Statistics statistics) {
+        long hits = statistics.getQueryPlanCacheHitCount();
+        long lookups = hits + statistics.getQueryPlanCacheMissCount();
+        return lookups == 0 ? Double.NaN : (double) hits / lookups;
+    }
+}
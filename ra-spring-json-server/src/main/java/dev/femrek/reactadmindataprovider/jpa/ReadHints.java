@@ -0,0 +1,75 @@
+package dev.femrek.reactadmindataprovider.jpa;
+
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * The hints of the queries run by the read methods of {@link dev.femrek.reactadmindataprovider.service.IRAService}.
+ * <p>
+ * The read methods run within read-only transactions, to which the hints are bound as a transaction resource. The
+ * queries of this package apply them with {@link #applyTo(TypedQuery)}: within a read-only transaction, the loaded
+ * entities are read-only, so Hibernate keeps no snapshot of them for dirty checking, and the configured JDBC fetch size
+ * lets the driver stream a whole window in as few round trips as possible.
+ */
+public final class ReadHints {
+    private final int fetchSize;
+
+    /**
+     * @param fetchSize the JDBC fetch size of the queries; 0 for the default of the driver
+     * @throws IllegalArgumentException if fetchSize is negative
+     */
+    public ReadHints(int fetchSize) {
+        if (fetchSize < 0) {
+            throw new IllegalArgumentException("fetchSize must not be negative.");
+        }
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * @return the JDBC fetch size of the queries; 0 for the default of the driver
+     */
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * Binds the hints to the current transaction, unless hints are already bound.
+     *
+     * @return whether the hints were bound, in which case they must be unbound with {@link #unbind()}
+     */
+    public boolean bind() {
+        if (TransactionSynchronizationManager.hasResource(ReadHints.class)) {
+            return false;
+        }
+        TransactionSynchronizationManager.bindResource(ReadHints.class, this);
+        return true;
+    }
+
+    /**
+     * Unbinds the hints from the current transaction.
+     */
+    public static void unbind() {
+        TransactionSynchronizationManager.unbindResourceIfPossible(ReadHints.class);
+    }
+
+    /**
+     * Applies the hints of the current transaction to a query. Outside of a read-only transaction, the query is left
+     * unchanged.
+     *
+     * @param query the query
+     * @param <R>   the result type
+     * @return the query
+     */
+    public static <R> TypedQuery<R> applyTo(TypedQuery<R> query) {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return query;
+        }
+        query.setHint(HibernateHints.HINT_READ_ONLY, true);
+        Object hints = TransactionSynchronizationManager.getResource(ReadHints.class);
+        if (hints instanceof ReadHints readHints && readHints.fetchSize > 0) {
+            query.setHint(HibernateHints.HINT_FETCH_SIZE, readHints.fetchSize);
+        }
+        return query;
+    }
+}
@@ -0,0 +1,55 @@
+package dev.femrek.reactadmindataprovider.jpa;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Routes the read-only transactions to a read-only data source, such as a replica, when the context defines one.
+ * <p>
+ * If a {@link DataSource} bean named {@value #READ_ONLY_DATA_SOURCE_BEAN_NAME} exists, the primary data source bean
+ * named {@value #DATA_SOURCE_BEAN_NAME} is wrapped in a {@link LazyConnectionDataSourceProxy} which takes its
+ * connections from the read-only data source whenever the transaction is read-only, as the read methods of
+ * {@link dev.femrek.reactadmindataprovider.service.IRAService} are. Otherwise, the data source is left as is.
+ */
+public class ReadOnlyDataSourcePostProcessor implements BeanPostProcessor, BeanFactoryAware {
+    /**
+     * The name of the data source bean the read-write connections are taken from.
+     */
+    public static final String DATA_SOURCE_BEAN_NAME = "dataSource";
+
+    /**
+     * The name of the data source bean the read-only connections are taken from.
+     */
+    public static final String READ_ONLY_DATA_SOURCE_BEAN_NAME = "readOnlyDataSource";
+
+    private static final Log log = LogFactory.getLog(ReadOnlyDataSourcePostProcessor.class);
+
+    private BeanFactory beanFactory;
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) {
+        this.beanFactory = beanFactory;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        if (!DATA_SOURCE_BEAN_NAME.equals(beanName)
+                || !(bean instanceof DataSource dataSource)
+                || bean instanceof LazyConnectionDataSourceProxy
+                || beanFactory == null
+                || !beanFactory.containsBean(READ_ONLY_DATA_SOURCE_BEAN_NAME)) {
+            return bean;
+        }
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(dataSource);
+        proxy.setReadOnlyDataSource(beanFactory.getBean(READ_ONLY_DATA_SOURCE_BEAN_NAME, DataSource.class));
+        log.info("Routing the read-only transactions to the " + READ_ONLY_DATA_SOURCE_BEAN_NAME + " bean");
+        return proxy;
+    }
+}
@@ -0,0 +1,133 @@
+package dev.femrek.reactadmindataprovider.jpa;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.metamodel.Attribute;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Fetches a window of entities without any count query.
+ * <p>
+ * One row more than the page size is selected to tell whether a next page exists. Use it from
+ * {@link dev.femrek.reactadmindataprovider.service.IRAService#findSliceWithFilters}:
+ * <pre>{@code
+ * public Slice<UserResponseDTO> findSliceWithFilters(Map<String, String> filters, Pageable pageable) {
+ *     return sliceQuery.findSlice(toSpecification(filters), pageable).map(this::toResponseDTO);
+ * }
+ * }</pre>
+ * When the client asks for a sparse fieldset ({@code _fields}), {@link #findSlice(Specification, Pageable, Collection,
+ * Supplier)} selects only the requested columns, so the others never leave the database.
+ *
+ * @param <E> the entity type
+ */
+public final class SliceQuery<E> {
+    private final EntityManager entityManager;
+    private final Class<E> domainClass;
+
+    /**
+     * @param entityManager the entity manager to run the query with
+     * @param domainClass   the entity class
+     */
+    public SliceQuery(EntityManager entityManager, Class<E> domainClass) {
+        this.entityManager = Objects.requireNonNull(entityManager, "entityManager");
+        this.domainClass = Objects.requireNonNull(domainClass, "domainClass");
+    }
+
+    /**
+     * Finds the window of entities matching the specification.
+     *
+     * @param spec     the filter of the query
+     * @param pageable the window and sort of the slice; must be paged
+     * @return the slice, knowing whether a next one exists
+     */
+    public Slice<E> findSlice(Specification<E> spec, Pageable pageable) {
+        List<E> rows = CriteriaQueries.select(entityManager, domainClass, spec, pageable.getSort(),
+                pageable.getOffset(), pageable.getPageSize() + 1);
+        return toSlice(rows, pageable);
+    }
+
+    /**
+     * Counts the entities matching the specification, stopping at the given limit. Use it from
+     * {@link dev.femrek.reactadmindataprovider.service.IRAService#countWithFilters}, so that a
+     * {@link dev.femrek.reactadmindataprovider.count.CountStrategy#capped(long) capped} count never scans more than
+     * {@code cap + 1} matching rows.
+     *
+     * @param spec  the filter of the query
+     * @param limit the maximum count of interest; {@link Long#MAX_VALUE} for an exact count
+     * @return the number of matching entities, at most {@code limit}
+     */
+    public long count(Specification<E> spec, long limit) {
+        return CriteriaQueries.countUpTo(entityManager, domainClass, spec, limit);
+    }
+
+    /**
+     * Finds the window of entities matching the specification, selecting only the requested fields and copying them
+     * into new Response DTOs. Requested fields that are not basic attributes of the entity or not writable properties
+     * of the DTO are ignored; the other DTO properties keep their default values.
+     * <p>
+     * Annotate the DTO with {@code @JsonInclude(JsonInclude.Include.NON_NULL)} to also leave the unselected fields out
+     * of the JSON response.
+     *
+     * @param spec       the filter of the query
+     * @param pageable   the window and sort of the slice; must be paged
+     * @param fields     the names of the fields to select; all fields when empty
+     * @param dtoFactory creates an empty Response DTO
+     * @param <T>        the Response DTO type
+     * @return the slice of partially filled DTOs, knowing whether a next one exists
+     */
+    public <T> Slice<T> findSlice(Specification<E> spec,
+                                  Pageable pageable,
+                                  Collection<String> fields,
+                                  Supplier<T> dtoFactory) {
+        List<String> attributes = selectableAttributes(fields, dtoFactory.get());
+        int pageSize = pageable.getPageSize();
+        List<Tuple> rows = CriteriaQueries.selectAttributes(entityManager, domainClass, spec, attributes,
+                pageable.getSort(), pageable.getOffset(), pageSize + 1);
+
+        return toSlice(rows, pageable).map(tuple -> {
+            T dto = dtoFactory.get();
+            BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(dto);
+            for (String attribute : attributes) {
+                wrapper.setPropertyValue(attribute, tuple.get(attribute));
+            }
+            return dto;
+        });
+    }
+
+    private List<String> selectableAttributes(Collection<String> fields, Object sampleDto) {
+        BeanWrapper dto = PropertyAccessorFactory.forBeanPropertyAccess(sampleDto);
+        Set<String> entityAttributes = entityManager.getMetamodel().entity(domainClass).getSingularAttributes().stream()
+                .filter(attribute -> attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.BASIC)
+                .map(Attribute::getName)
+                .collect(Collectors.toSet());
+
+        List<String> attributes = (fields.isEmpty() ? entityAttributes : fields).stream()
+                .distinct()
+                .filter(entityAttributes::contains)
+                .filter(dto::isWritableProperty)
+                .toList();
+        if (attributes.isEmpty()) {
+            throw new IllegalArgumentException("None of the requested fields " + fields + " can be selected.");
+        }
+        return attributes;
+    }
+
+    private static <R> Slice<R> toSlice(List<R> rows, Pageable pageable) {
+        int pageSize = pageable.getPageSize();
+        boolean hasNext = rows.size() > pageSize;
+        List<R> content = hasNext ? rows.subList(0, pageSize) : rows;
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+}
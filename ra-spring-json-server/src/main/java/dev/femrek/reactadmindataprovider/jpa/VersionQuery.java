@@ -0,0 +1,76 @@
+package dev.femrek.reactadmindataprovider.jpa;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Selects the {@link jakarta.persistence.Version version} of an entity by id, as a scalar, so that no entity is
+ * hydrated.
+ * <p>
+ * The version changes with every update of the entity, which makes it a cheap entity tag: a conditional getOne can be
+ * answered with <code>304 Not Modified</code> without loading the record. Use it from
+ * {@link dev.femrek.reactadmindataprovider.service.IRAService#findVersionById}.
+ *
+ * @param <E> the entity type
+ */
+public final class VersionQuery<E> {
+    private final EntityManager entityManager;
+    private final Class<E> domainClass;
+    private final SingularAttribute<? super E, ?> idAttribute;
+    private final SingularAttribute<? super E, ?> versionAttribute;
+
+    /**
+     * @param entityManager the entity manager to run the query with
+     * @param domainClass   the entity class
+     */
+    public VersionQuery(EntityManager entityManager, Class<E> domainClass) {
+        this.entityManager = Objects.requireNonNull(entityManager, "entityManager");
+        this.domainClass = Objects.requireNonNull(domainClass, "domainClass");
+        this.idAttribute = CriteriaQueries.idAttribute(entityManager, domainClass);
+        this.versionAttribute = versionAttribute(entityManager.getMetamodel().entity(domainClass));
+    }
+
+    /**
+     * @return whether the entity has a single id attribute and a version attribute, which this query requires
+     */
+    public boolean isSupported() {
+        return idAttribute != null && versionAttribute != null;
+    }
+
+    /**
+     * Finds the version of the entity with the given id.
+     *
+     * @param id the id of the entity
+     * @return the version, or null if the query is not supported, the entity does not exist or has no version yet
+     */
+    public Object findVersion(Object id) {
+        if (!isSupported() || id == null) {
+            return null;
+        }
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object> query = criteriaBuilder.createQuery(Object.class);
+        Root<E> root = query.from(domainClass);
+        query.select(root.get(versionAttribute)).where(criteriaBuilder.equal(root.get(idAttribute), id));
+        List<Object> versions = ReadHints.applyTo(entityManager.createQuery(query)).setMaxResults(1).getResultList();
+        return versions.isEmpty() ? null : versions.get(0);
+    }
+
+    private static <E> SingularAttribute<? super E, ?> versionAttribute(EntityType<E> entityType) {
+        if (!entityType.hasVersionAttribute()) {
+            return null;
+        }
+        for (SingularAttribute<? super E, ?> attribute : entityType.getSingularAttributes()) {
+            if (attribute.isVersion()) {
+                return attribute;
+            }
+        }
+        return null;
+    }
+}
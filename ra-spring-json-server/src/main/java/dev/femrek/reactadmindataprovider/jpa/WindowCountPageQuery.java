@@ -0,0 +1,108 @@
+package dev.femrek.reactadmindataprovider.jpa;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaExpression;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Fetches a page of entities and their total in a single statement, using a window count.
+ * <p>
+ * Every row of {@code SELECT e, count(e) OVER () FROM ... WHERE ... ORDER BY ... OFFSET ... LIMIT ...} carries the
+ * number of rows matching the filter, since the window is computed before the limit. The total is read from the first
+ * row, which saves the round trip and the second plan execution of a separate count query. Only a window past the
+ * last row has no row to read the total from; it is then counted separately.
+ * <p>
+ * Use it from {@link dev.femrek.reactadmindataprovider.service.IRAService#findWithFilters}:
+ * <pre>{@code
+ * private final WindowCountPageQuery<Post> pageQuery;
+ *
+ * public PostService(EntityManager entityManager) {
+ *     this.pageQuery = new WindowCountPageQuery<>(entityManager, Post.class);
+ * }
+ *
+ * public Page<PostResponseDTO> findWithFilters(Map<String, String> filters, Pageable pageable) {
+ *     return pageQuery.findAll(toSpecification(filters), pageable).map(this::toResponseDTO);
+ * }
+ * }</pre>
+ * Window functions require Hibernate as the JPA provider. The specification must not add fetch joins or make the
+ * query distinct, which would change what the window counts.
+ *
+ * @param <E> the entity type
+ */
+public final class WindowCountPageQuery<E> {
+    private static final String ENTITY_ALIAS = "entity";
+    private static final String TOTAL_ALIAS = "total";
+
+    private final EntityManager entityManager;
+    private final Class<E> domainClass;
+
+    /**
+     * @param entityManager the entity manager to run the query with
+     * @param domainClass   the entity class
+     */
+    public WindowCountPageQuery(EntityManager entityManager, Class<E> domainClass) {
+        this.entityManager = Objects.requireNonNull(entityManager, "entityManager");
+        this.domainClass = Objects.requireNonNull(domainClass, "domainClass");
+    }
+
+    /**
+     * Finds the page of entities matching the specification, with its total.
+     *
+     * @param spec     the filter of the query
+     * @param pageable the window and sort of the page
+     * @return the page, with its total
+     * @throws UnsupportedOperationException if the JPA provider is not Hibernate
+     */
+    public Page<E> findAll(Specification<E> spec, Pageable pageable) {
+        if (!(entityManager.getCriteriaBuilder() instanceof HibernateCriteriaBuilder criteriaBuilder)) {
+            throw new UnsupportedOperationException("Window count queries require Hibernate as the JPA provider.");
+        }
+
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<E> root = query.from(domainClass);
+        JpaExpression<Long> total = criteriaBuilder.count(root, criteriaBuilder.createWindow());
+        query.multiselect(root.alias(ENTITY_ALIAS), total.alias(TOTAL_ALIAS));
+
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder));
+        }
+
+        TypedQuery<Tuple> typedQuery = ReadHints.applyTo(entityManager.createQuery(query));
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult(Math.toIntExact(pageable.getOffset()));
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<Tuple> rows = typedQuery.getResultList();
+
+        List<E> content = rows.stream().map(row -> row.get(ENTITY_ALIAS, domainClass)).toList();
+        long totalElements = rows.isEmpty() ? countEmpty(spec, pageable) : rows.get(0).get(TOTAL_ALIAS, Long.class);
+        return new PageImpl<>(content, pageable, totalElements);
+    }
+
+    /**
+     * Counts the matches of a page without rows. The first page is empty only when nothing matches.
+     */
+    private long countEmpty(Specification<E> spec, Pageable pageable) {
+        if (pageable.isUnpaged() || pageable.getOffset() == 0) {
+            return 0;
+        }
+        return CriteriaQueries.count(entityManager, domainClass, spec);
+    }
+}
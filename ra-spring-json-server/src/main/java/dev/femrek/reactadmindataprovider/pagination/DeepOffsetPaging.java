@@ -0,0 +1,221 @@
+package dev.femrek.reactadmindataprovider.pagination;
+
+import org.springframework.data.domain.Sort;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Rewrites deep offset windows of getList as seeks on the sort key.
+ * <p>
+ * React Admin pages by offset, so jumping to page 36000 makes the database read and discard every row before it. With
+ * deep offset paging enabled, the controller remembers the cursor of the rows at every {@code boundaryInterval}-th
+ * position of the windows it serves, per query shape (filters and sort). A window starting at or beyond
+ * {@code offsetThreshold} is then served by
+ * {@link dev.femrek.reactadmindataprovider.service.IRAService#findWithFiltersAfter(Map, KeysetCursor, Sort, int, int)}
+ * from the closest boundary before it, skipping only the rows between the boundary and the window. Windows without a
+ * close enough boundary use the offset, and record new boundaries for the next requests.
+ * <p>
+ * Only sorts on one field followed by the identifier can be seeked; the controller appends the identifier to
+ * single-field sorts of resources using deep offset paging. Boundaries are shifted by inserts and deletes before them:
+ * they are cleared by the writes through the controller and expire after {@code ttl}, so deep windows may be off by
+ * the rows changed otherwise within that time.
+ * <p>
+ * An instance keeps state between requests: create one per resource and return the same instance from
+ * {@link dev.femrek.reactadmindataprovider.controller.RAController#getDeepOffsetPaging()}.
+ */
+public final class DeepOffsetPaging {
+    private static final int MAX_BOUNDARIES_PER_SHAPE = 10_000;
+    private static final DeepOffsetPaging DISABLED = new DeepOffsetPaging(Long.MAX_VALUE, 1, 1, Duration.ZERO);
+
+    private final long offsetThreshold;
+    private final int boundaryInterval;
+    private final int maxQueryShapes;
+    private final long ttlNanos;
+    private final ConcurrentHashMap<List<Object>, ConcurrentSkipListMap<Long, Boundary>> shapes =
+            new ConcurrentHashMap<>();
+
+    private DeepOffsetPaging(long offsetThreshold, int boundaryInterval, int maxQueryShapes, Duration ttl) {
+        this.offsetThreshold = offsetThreshold;
+        this.boundaryInterval = boundaryInterval;
+        this.maxQueryShapes = maxQueryShapes;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * @return deep offset paging that never rewrites windows
+     */
+    public static DeepOffsetPaging disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Returns deep offset paging rewriting windows starting at or beyond the given offset.
+     *
+     * @param offsetThreshold  the offset from which windows are seeked
+     * @param boundaryInterval the distance between two recorded boundaries, in rows
+     * @param maxQueryShapes   the maximum number of query shapes whose boundaries are kept
+     * @param ttl              how long a boundary is used after being recorded
+     * @return the deep offset paging
+     */
+    public static DeepOffsetPaging above(long offsetThreshold, int boundaryInterval, int maxQueryShapes, Duration ttl) {
+        if (offsetThreshold < 1 || boundaryInterval < 1 || maxQueryShapes < 1) {
+            throw new IllegalArgumentException("offsetThreshold, boundaryInterval and maxQueryShapes must be at least 1.");
+        }
+        return new DeepOffsetPaging(offsetThreshold, boundaryInterval, maxQueryShapes, Objects.requireNonNull(ttl));
+    }
+
+    /**
+     * @return whether windows are ever rewritten
+     */
+    public boolean isEnabled() {
+        return this != DISABLED;
+    }
+
+    /**
+     * Completes a sort so that it can be seeked: a single field other than the identifier is followed by the
+     * identifier in the same direction. Disabled deep offset paging leaves the sort as is.
+     *
+     * @param sort the requested sort
+     * @return the sort to query with
+     */
+    public Sort withTiebreaker(Sort sort) {
+        List<Sort.Order> orders = sort.toList();
+        if (isEnabled() && orders.size() == 1 && !KeysetQueries.ID_FIELD.equals(orders.get(0).getProperty())) {
+            return sort.and(Sort.by(orders.get(0).getDirection(), KeysetQueries.ID_FIELD));
+        }
+        return sort;
+    }
+
+    /**
+     * @param sort the sort of a query
+     * @return whether the query can be seeked, i.e. its sort is the identifier, or one field followed by the identifier
+     * in the same direction
+     */
+    public boolean isSeekable(Sort sort) {
+        List<Sort.Order> orders = sort.toList();
+        if (orders.size() == 1) {
+            return KeysetQueries.ID_FIELD.equals(orders.get(0).getProperty());
+        }
+        return orders.size() == 2
+                && KeysetQueries.ID_FIELD.equals(orders.get(1).getProperty())
+                && orders.get(0).getDirection() == orders.get(1).getDirection();
+    }
+
+    /**
+     * Finds the boundary to seek from for a window.
+     *
+     * @param filters the filters of the query
+     * @param sort    the sort of the query
+     * @param offset  the offset of the window
+     * @return the closest live boundary at most {@code offsetThreshold} rows before the window; null if the window is
+     * not deep or no such boundary is known
+     */
+    public Boundary seekFrom(Map<String, String> filters, Sort sort, long offset) {
+        if (!isEnabled() || offset < offsetThreshold) {
+            return null;
+        }
+        ConcurrentSkipListMap<Long, Boundary> boundaries = shapes.get(shape(filters, sort));
+        if (boundaries == null) {
+            return null;
+        }
+
+        long now = System.nanoTime();
+        Map.Entry<Long, Boundary> entry = boundaries.floorEntry(offset);
+        while (entry != null && offset - entry.getKey() < offsetThreshold) {
+            Boundary boundary = entry.getValue();
+            if (now - boundary.recordedAt < ttlNanos) {
+                return boundary;
+            }
+            boundaries.remove(entry.getKey(), boundary);
+            entry = boundaries.lowerEntry(entry.getKey());
+        }
+        return null;
+    }
+
+    /**
+     * @param position the number of rows before a position of the result
+     * @return whether a boundary is recorded at the position
+     */
+    public boolean isBoundary(long position) {
+        return isEnabled() && position > 0 && position % boundaryInterval == 0;
+    }
+
+    /**
+     * Records a boundary.
+     *
+     * @param filters  the filters of the query
+     * @param sort     the sort of the query
+     * @param position the number of rows before the boundary
+     * @param cursor   the cursor of the last row before the boundary
+     */
+    public void record(Map<String, String> filters, Sort sort, long position, KeysetCursor cursor) {
+        if (!isEnabled()) {
+            return;
+        }
+        List<Object> shape = shape(filters, sort);
+        ConcurrentSkipListMap<Long, Boundary> boundaries = shapes.get(shape);
+        if (boundaries == null) {
+            if (shapes.size() >= maxQueryShapes) {
+                evictShape();
+            }
+            boundaries = shapes.computeIfAbsent(shape, key -> new ConcurrentSkipListMap<>());
+        }
+        if (boundaries.size() < MAX_BOUNDARIES_PER_SHAPE || boundaries.containsKey(position)) {
+            boundaries.put(position, new Boundary(position, cursor, System.nanoTime()));
+        }
+    }
+
+    /**
+     * Forgets every recorded boundary. Called by the controller after each of its writes, which may shift them.
+     */
+    public void clear() {
+        shapes.clear();
+    }
+
+    private void evictShape() {
+        Iterator<List<Object>> keys = shapes.keySet().iterator();
+        while (shapes.size() >= maxQueryShapes && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static List<Object> shape(Map<String, String> filters, Sort sort) {
+        return List.of(Map.copyOf(filters), sort);
+    }
+
+    /**
+     * A position of a query result and the cursor of the row right before it.
+     */
+    public static final class Boundary {
+        private final long offset;
+        private final KeysetCursor cursor;
+        private final long recordedAt;
+
+        private Boundary(long offset, KeysetCursor cursor, long recordedAt) {
+            this.offset = offset;
+            this.cursor = cursor;
+            this.recordedAt = recordedAt;
+        }
+
+        /**
+         * @return the number of rows before the boundary
+         */
+        public long getOffset() {
+            return offset;
+        }
+
+        /**
+         * @return the cursor of the last row before the boundary
+         */
+        public KeysetCursor getCursor() {
+            return cursor;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package dev.femrek.reactadmindataprovider.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Opaque position marker for keyset (seek) pagination.
+ * <p>
+ * A cursor remembers the value of the sort column and the identifier of the last row that was returned to the client.
+ * The next page is then fetched with a {@code WHERE (sort, id) > (:sortValue, :id)} condition instead of an OFFSET, so
+ * deep pages cost the same as the first one.
+ * <p>
+ * Clients must treat the encoded form as an opaque token; it is only meant to be echoed back through the
+ * {@code _after} query parameter.
+ */
+public final class KeysetCursor {
+    private static final char SEPARATOR = '\u001F';
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final String sortField;
+    private final String sortValue;
+    private final String id;
+
+    private KeysetCursor(String sortField, String sortValue, String id) {
+        this.sortField = Objects.requireNonNull(sortField, "sortField");
+        this.sortValue = Objects.requireNonNull(sortValue, "sortValue");
+        this.id = Objects.requireNonNull(id, "id");
+    }
+
+    /**
+     * Creates a cursor pointing after the row with the given sort value and identifier.
+     *
+     * @param sortField the name of the field the list is sorted by
+     * @param sortValue the value of the sort field in the last returned row; must not be null
+     * @param id        the identifier of the last returned row
+     * @return a new cursor
+     */
+    public static KeysetCursor of(String sortField, Object sortValue, Object id) {
+        if (sortValue == null) {
+            throw new IllegalArgumentException("Keyset pagination requires a non-null value for sort field '" +
+                    sortField + "'.");
+        }
+        return new KeysetCursor(sortField, String.valueOf(sortValue), String.valueOf(id));
+    }
+
+    /**
+     * Decodes a cursor previously produced by {@link #encode()}.
+     *
+     * @param token the encoded cursor
+     * @return the decoded cursor
+     * @throws IllegalArgumentException if the token is not a valid cursor
+     */
+    public static KeysetCursor decode(String token) {
+        String raw;
+        try {
+            raw = new String(DECODER.decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed keyset cursor.", e);
+        }
+
+        int first = raw.indexOf(SEPARATOR);
+        int last = raw.lastIndexOf(SEPARATOR);
+        if (first <= 0 || first == last) {
+            throw new IllegalArgumentException("Malformed keyset cursor.");
+        }
+        return new KeysetCursor(raw.substring(0, first), raw.substring(first + 1, last), raw.substring(last + 1));
+    }
+
+    /**
+     * Encodes this cursor into a URL-safe opaque token.
+     *
+     * @return the encoded cursor
+     */
+    public String encode() {
+        String raw = sortField + SEPARATOR + sortValue + SEPARATOR + id;
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the name of the field the cursor was created for
+     */
+    public String getSortField() {
+        return sortField;
+    }
+
+    /**
+     * @return the sort field value of the last returned row, in its string form
+     */
+    public String getSortValue() {
+        return sortValue;
+    }
+
+    /**
+     * @return the identifier of the last returned row, in its string form
+     */
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof KeysetCursor that)) return false;
+        return sortField.equals(that.sortField) && sortValue.equals(that.sortValue) && id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sortField, sortValue, id);
+    }
+
+    @Override
+    public String toString() {
+        return "KeysetCursor{sortField='" + sortField + "', sortValue='" + sortValue + "', id='" + id + "'}";
+    }
+}
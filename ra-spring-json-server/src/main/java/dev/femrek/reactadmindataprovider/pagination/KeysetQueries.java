@@ -0,0 +1,144 @@
+package dev.femrek.reactadmindataprovider.pagination;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Helpers for implementing {@link dev.femrek.reactadmindataprovider.service.IRAService#findWithFiltersAfter} on top
+ * of {@link org.springframework.data.jpa.repository.JpaSpecificationExecutor}.
+ * <p>
+ * Typical usage:
+ * <pre>{@code
+ * Specification<User> spec = filters(filters).and(KeysetQueries.after(cursor, sort));
+ * List<User> rows = repository.findBy(spec, q -> q.sortBy(sort).limit(limit + 1).all());
+ * return KeysetQueries.slice(rows, limit, sort, this::toResponseDTO);
+ * }</pre>
+ * The sort column should be backed by an index together with the identifier and must not contain nulls.
+ */
+public final class KeysetQueries {
+    /**
+     * The identifier attribute used as the tiebreaker of every keyset sort.
+     */
+    public static final String ID_FIELD = "id";
+
+    private static final ConversionService CONVERSION_SERVICE = DefaultConversionService.getSharedInstance();
+
+    private KeysetQueries() {
+    }
+
+    /**
+     * Builds the seek condition that selects the rows following the cursor for the given sort.
+     *
+     * @param cursor the cursor of the last returned row, or null for the first window
+     * @param sort   the sort of the query; its first order decides the seek column and direction
+     * @param <E>    the entity type
+     * @return a specification selecting the rows after the cursor
+     */
+    public static <E> Specification<E> after(KeysetCursor cursor, Sort sort) {
+        if (cursor == null) {
+            return (root, query, criteriaBuilder) -> criteriaBuilder.conjunction();
+        }
+        Sort.Order order = primaryOrder(sort);
+        boolean ascending = order.isAscending();
+
+        return (root, query, criteriaBuilder) -> {
+            Path<?> idPath = root.get(ID_FIELD);
+            Comparable<?> idValue = convert(cursor.getId(), idPath.getJavaType());
+            Predicate idBeyond = beyond(criteriaBuilder, idPath, idValue, ascending);
+            if (ID_FIELD.equals(cursor.getSortField())) {
+                return idBeyond;
+            }
+
+            Path<?> sortPath = root.get(cursor.getSortField());
+            Comparable<?> sortValue = convert(cursor.getSortValue(), sortPath.getJavaType());
+            return criteriaBuilder.or(
+                    beyond(criteriaBuilder, sortPath, sortValue, ascending),
+                    criteriaBuilder.and(criteriaBuilder.equal(sortPath, sortValue), idBeyond)
+            );
+        };
+    }
+
+    /**
+     * Turns the rows of a {@code limit + 1} query into a {@link KeysetSlice}. The extra row only signals that another
+     * window exists and is not returned.
+     *
+     * @param rows   the fetched entities, at most {@code limit + 1} of them
+     * @param limit  the requested window size
+     * @param sort   the sort the rows were fetched with
+     * @param mapper maps an entity to its Response DTO
+     * @param <E>    the entity type
+     * @param <T>    the Response DTO type
+     * @return the window and the cursor of the next one
+     */
+    public static <E, T> KeysetSlice<T> slice(List<E> rows, int limit, Sort sort, Function<? super E, ? extends T> mapper) {
+        List<T> content = rows.stream().limit(limit).<T>map(mapper).toList();
+        if (rows.size() <= limit) {
+            return new KeysetSlice<>(content, null);
+        }
+
+        return new KeysetSlice<>(content, cursorOf(rows.get(limit - 1), sort));
+    }
+
+    /**
+     * Turns a {@link Slice} of entities into a {@link KeysetSlice}, e.g. one fetched by
+     * {@link dev.femrek.reactadmindataprovider.jpa.SliceQuery} with a seek condition and an offset.
+     *
+     * @param slice  the fetched entities, knowing whether more follow
+     * @param sort   the sort the rows were fetched with
+     * @param mapper maps an entity to its Response DTO
+     * @param <E>    the entity type
+     * @param <T>    the Response DTO type
+     * @return the window and the cursor of the next one
+     */
+    public static <E, T> KeysetSlice<T> slice(Slice<E> slice, Sort sort, Function<? super E, ? extends T> mapper) {
+        List<E> rows = slice.getContent();
+        List<T> content = rows.stream().<T>map(mapper).toList();
+        if (!slice.hasNext() || rows.isEmpty()) {
+            return new KeysetSlice<>(content, null);
+        }
+        return new KeysetSlice<>(content, cursorOf(rows.get(rows.size() - 1), sort));
+    }
+
+    /**
+     * Reads the cursor pointing right after the given row, for the given sort.
+     *
+     * @param row  an entity or Response DTO exposing the sort field and the identifier as bean properties
+     * @param sort the sort the row was fetched with
+     * @return the cursor of the row
+     */
+    public static KeysetCursor cursorOf(Object row, Sort sort) {
+        String sortField = primaryOrder(sort).getProperty();
+        BeanWrapper accessor = PropertyAccessorFactory.forBeanPropertyAccess(row);
+        return KeysetCursor.of(sortField,
+                accessor.getPropertyValue(sortField),
+                accessor.getPropertyValue(ID_FIELD));
+    }
+
+    private static Sort.Order primaryOrder(Sort sort) {
+        return sort.stream().findFirst().orElse(Sort.Order.asc(ID_FIELD));
+    }
+
+    private static Comparable<?> convert(String value, Class<?> type) {
+        Object converted = CONVERSION_SERVICE.convert(value, type);
+        if (!(converted instanceof Comparable<?> comparable)) {
+            throw new IllegalArgumentException("Keyset pagination requires a comparable sort field, got " + type);
+        }
+        return comparable;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate beyond(CriteriaBuilder criteriaBuilder, Path path, Comparable value, boolean ascending) {
+        return ascending ? criteriaBuilder.greaterThan(path, value) : criteriaBuilder.lessThan(path, value);
+    }
+}
@@ -0,0 +1,43 @@
+package dev.femrek.reactadmindataprovider.pagination;
+
+import java.util.List;
+
+/**
+ * A window of results fetched with keyset pagination, together with the cursor pointing to the next window.
+ *
+ * @param <T> the Response DTO type
+ */
+public final class KeysetSlice<T> {
+    private final List<T> content;
+    private final KeysetCursor nextCursor;
+
+    /**
+     * @param content    the rows of this window
+     * @param nextCursor the cursor of the next window, or null if this is the last one
+     */
+    public KeysetSlice(List<T> content, KeysetCursor nextCursor) {
+        this.content = List.copyOf(content);
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * @return the rows of this window
+     */
+    public List<T> getContent() {
+        return content;
+    }
+
+    /**
+     * @return the cursor of the next window, or null if there are no more rows
+     */
+    public KeysetCursor getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * @return true if more rows follow this window
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
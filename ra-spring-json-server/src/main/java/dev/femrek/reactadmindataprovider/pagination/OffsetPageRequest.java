@@ -0,0 +1,126 @@
+package dev.femrek.reactadmindataprovider.pagination;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * {@link Pageable} that addresses an arbitrary window by offset and limit instead of by page number.
+ * <p>
+ * React Admin sends {@code _start} and {@code _end}, which do not have to be aligned to the window size (infinite
+ * lists, changed {@code perPage}, virtualized tables). {@link org.springframework.data.domain.PageRequest} can only
+ * express offsets that are multiples of the page size, while this implementation passes {@code _start} and
+ * {@code _end - _start} straight to the OFFSET and LIMIT of the query.
+ */
+public final class OffsetPageRequest implements Pageable, Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final long offset;
+    private final int limit;
+    private final Sort sort;
+
+    private OffsetPageRequest(long offset, int limit, Sort sort) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset must not be less than zero.");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must not be less than one.");
+        }
+        this.offset = offset;
+        this.limit = limit;
+        this.sort = Objects.requireNonNull(sort, "sort");
+    }
+
+    /**
+     * Creates a window starting at the given offset.
+     *
+     * @param offset the zero-based index of the first row
+     * @param limit  the maximum number of rows
+     * @param sort   the sort of the rows
+     * @return a new pageable
+     */
+    public static OffsetPageRequest of(long offset, int limit, Sort sort) {
+        return new OffsetPageRequest(offset, limit, sort);
+    }
+
+    /**
+     * Creates an unsorted window starting at the given offset.
+     *
+     * @param offset the zero-based index of the first row
+     * @param limit  the maximum number of rows
+     * @return a new pageable
+     */
+    public static OffsetPageRequest of(long offset, int limit) {
+        return new OffsetPageRequest(offset, limit, Sort.unsorted());
+    }
+
+    /**
+     * Returns the index of the page containing the first row. Only meaningful when the offset is aligned to the
+     * limit; prefer {@link #getOffset()}.
+     */
+    @Override
+    public int getPageNumber() {
+        return (int) (offset / limit);
+    }
+
+    @Override
+    public int getPageSize() {
+        return limit;
+    }
+
+    @Override
+    public long getOffset() {
+        return offset;
+    }
+
+    @Override
+    public Sort getSort() {
+        return sort;
+    }
+
+    @Override
+    public Pageable next() {
+        return new OffsetPageRequest(offset + limit, limit, sort);
+    }
+
+    @Override
+    public Pageable previousOrFirst() {
+        return hasPrevious() ? new OffsetPageRequest(Math.max(0, offset - limit), limit, sort) : first();
+    }
+
+    @Override
+    public Pageable first() {
+        return new OffsetPageRequest(0, limit, sort);
+    }
+
+    @Override
+    public Pageable withPage(int pageNumber) {
+        return new OffsetPageRequest((long) pageNumber * limit, limit, sort);
+    }
+
+    @Override
+    public boolean hasPrevious() {
+        return offset > 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof OffsetPageRequest that)) return false;
+        return offset == that.offset && limit == that.limit && sort.equals(that.sort);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(offset, limit, sort);
+    }
+
+    @Override
+    public String toString() {
+        return "OffsetPageRequest{offset=" + offset + ", limit=" + limit + ", sort=" + sort + "}";
+    }
+}
@@ -0,0 +1,109 @@
+package dev.femrek.reactadmindataprovider.pagination;
+
+/**
+ * Upper bounds of the windows served by the list operations of a resource.
+ * <p>
+ * A window is bounded by a maximum number of rows and by a byte budget for the serialized response. The budget is
+ * enforced before the service is called, so it is turned into a number of rows with an estimate of the serialized
+ * size of one row:
+ * <pre>{@code
+ * private static final WindowLimits WINDOW_LIMITS = WindowLimits.maxWindowSize(500)
+ *         .withResponseBudget(4 * 1024 * 1024, 2_048);
+ * }</pre>
+ * Larger windows are clamped by default; see {@link #rejectingOversized()}.
+ * <p>
+ * Instances are immutable.
+ */
+public final class WindowLimits {
+    /**
+     * What to do with a request for a window larger than the limits.
+     */
+    public enum Overflow {
+        /**
+         * Serve the largest allowed window starting at the same position.
+         */
+        CLAMP,
+        /**
+         * Reject the request with <code>400 Bad Request</code>.
+         */
+        REJECT
+    }
+
+    private static final WindowLimits UNLIMITED = new WindowLimits(Integer.MAX_VALUE, Long.MAX_VALUE, 1,
+            Overflow.CLAMP);
+
+    private final int maxWindowSize;
+    private final long maxResponseBytes;
+    private final int estimatedRowBytes;
+    private final Overflow overflow;
+
+    private WindowLimits(int maxWindowSize, long maxResponseBytes, int estimatedRowBytes, Overflow overflow) {
+        this.maxWindowSize = maxWindowSize;
+        this.maxResponseBytes = maxResponseBytes;
+        this.estimatedRowBytes = estimatedRowBytes;
+        this.overflow = overflow;
+    }
+
+    /**
+     * @return limits allowing windows of any size
+     */
+    public static WindowLimits unlimited() {
+        return UNLIMITED;
+    }
+
+    /**
+     * Returns limits allowing at most the given number of rows per window.
+     *
+     * @param maxWindowSize the maximum number of rows of a window
+     * @return the limits, clamping larger windows
+     */
+    public static WindowLimits maxWindowSize(int maxWindowSize) {
+        if (maxWindowSize < 1) {
+            throw new IllegalArgumentException("maxWindowSize must be at least 1.");
+        }
+        return new WindowLimits(maxWindowSize, Long.MAX_VALUE, 1, Overflow.CLAMP);
+    }
+
+    /**
+     * Returns a copy of these limits also bounding the size of the serialized response.
+     *
+     * @param maxResponseBytes  the maximum size of a response body, in bytes
+     * @param estimatedRowBytes the estimated size of one serialized row, in bytes
+     * @return the limits with the response budget
+     */
+    public WindowLimits withResponseBudget(long maxResponseBytes, int estimatedRowBytes) {
+        if (maxResponseBytes < 1 || estimatedRowBytes < 1) {
+            throw new IllegalArgumentException("maxResponseBytes and estimatedRowBytes must be at least 1.");
+        }
+        return new WindowLimits(maxWindowSize, maxResponseBytes, estimatedRowBytes, overflow);
+    }
+
+    /**
+     * Returns a copy of these limits rejecting larger windows instead of clamping them.
+     *
+     * @return the rejecting limits
+     */
+    public WindowLimits rejectingOversized() {
+        return new WindowLimits(maxWindowSize, maxResponseBytes, estimatedRowBytes, Overflow.REJECT);
+    }
+
+    /**
+     * @return the maximum number of rows of a window, considering the response budget; at least 1
+     */
+    public int getMaxRows() {
+        long budgetRows = Math.max(1, maxResponseBytes / estimatedRowBytes);
+        return (int) Math.min(maxWindowSize, budgetRows);
+    }
+
+    /**
+     * @return what to do with larger windows
+     */
+    public Overflow getOverflow() {
+        return overflow;
+    }
+
+    @Override
+    public String toString() {
+        return "WindowLimits{maxRows=" + getMaxRows() + ", overflow=" + overflow + '}';
+    }
+}
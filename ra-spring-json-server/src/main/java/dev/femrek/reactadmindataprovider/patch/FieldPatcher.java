@@ -0,0 +1,234 @@
+package dev.femrek.reactadmindataprovider.patch;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.NumberUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Applies the fields of update requests to objects without reflection at request time.
+ * <p>
+ * At construction, the setter of every patchable property is turned into a {@link BiConsumer} generated by
+ * {@link LambdaMetafactory}, which the JIT compiler inlines like a hand-written call, along with a coercion of the
+ * values Jackson produces to the property type:
+ * <ul>
+ *     <li>numbers are narrowed or widened to the numeric type of the property, failing on overflow</li>
+ *     <li>other values, such as strings for enums and dates, go through the shared {@link ConversionService}</li>
+ *     <li>{@code null} clears the property, unless its type is primitive</li>
+ * </ul>
+ * Applying a patch is then a loop of map lookups and direct calls. Names that are not patchable properties, such as
+ * the {@code id} React Admin sends back with the record, are ignored.
+ * <pre>{@code
+ * private static final FieldPatcher<Post> PATCHER = FieldPatcher.of(Post.class, List.of("title", "content", "status"));
+ *
+ * protected void applyFields(Post post, Map<String, Object> fields) {
+ *     PATCHER.apply(post, fields);
+ * }
+ * }</pre>
+ *
+ * @param <E> the type of the patched objects
+ */
+public final class FieldPatcher<E> {
+    private static final ConversionService CONVERSION_SERVICE = DefaultConversionService.getSharedInstance();
+
+    private final Map<String, Property<E>> properties;
+
+    private FieldPatcher(Map<String, Property<E>> properties) {
+        this.properties = Collections.unmodifiableMap(properties);
+    }
+
+    /**
+     * Creates the patcher of every writable property of a class.
+     *
+     * @param type the class of the patched objects
+     * @param <E>  the type of the patched objects
+     * @return the patcher
+     */
+    public static <E> FieldPatcher<E> of(Class<E> type) {
+        Map<String, Property<E>> properties = new HashMap<>();
+        for (PropertyDescriptor descriptor : BeanUtils.getPropertyDescriptors(type)) {
+            if (descriptor.getWriteMethod() != null) {
+                properties.put(descriptor.getName(), property(type, descriptor));
+            }
+        }
+        return new FieldPatcher<>(properties);
+    }
+
+    /**
+     * Creates the patcher of the given properties of a class.
+     *
+     * @param type   the class of the patched objects
+     * @param fields the names of the patchable properties
+     * @param <E>    the type of the patched objects
+     * @return the patcher
+     * @throws IllegalArgumentException if a field is not a writable property of the class
+     */
+    public static <E> FieldPatcher<E> of(Class<E> type, Collection<String> fields) {
+        Map<String, Property<E>> properties = new HashMap<>();
+        for (String field : fields) {
+            PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(type, field);
+            if (descriptor == null || descriptor.getWriteMethod() == null) {
+                throw new IllegalArgumentException(field + " is not a writable property of " + type.getSimpleName());
+            }
+            properties.put(field, property(type, descriptor));
+        }
+        return new FieldPatcher<>(properties);
+    }
+
+    /**
+     * @return the names of the patchable properties
+     */
+    public Set<String> getFields() {
+        return properties.keySet();
+    }
+
+    /**
+     * Sets the properties of an object to the given values. Names that are not patchable properties are ignored.
+     * Every value is coerced before the first property is set, so the object is left untouched when one of them
+     * cannot be coerced.
+     *
+     * @param target the object to patch
+     * @param fields the new values, by property name
+     * @throws IllegalArgumentException if a value cannot be coerced to the type of its property
+     */
+    public void apply(E target, Map<String, Object> fields) {
+        for (Map.Entry<String, Object> field : coerce(fields).entrySet()) {
+            properties.get(field.getKey()).setter.accept(target, field.getValue());
+        }
+    }
+
+    /**
+     * Coerces the values of the patchable properties to their types, without applying them. Use it to build bulk
+     * update statements from an update request.
+     *
+     * @param fields the new values, by property name
+     * @return the coerced values of the patchable properties, by property name; other names are left out
+     * @throws IllegalArgumentException if a value cannot be coerced to the type of its property
+     */
+    public Map<String, Object> coerce(Map<String, Object> fields) {
+        Map<String, Object> coerced = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            Property<E> property = properties.get(field.getKey());
+            if (property != null) {
+                coerced.put(field.getKey(), property.coerce(field.getValue()));
+            }
+        }
+        return coerced;
+    }
+
+    private static <E> Property<E> property(Class<E> type, PropertyDescriptor descriptor) {
+        Method writeMethod = descriptor.getWriteMethod();
+        Class<?> propertyType = writeMethod.getParameterTypes()[0];
+        return new Property<>(descriptor.getName(), propertyType, setter(type, writeMethod), coercionTo(propertyType));
+    }
+
+    /**
+     * Generates a {@link BiConsumer} calling the setter directly. Primitive parameters are unboxed by the generated
+     * class. When the class cannot be generated, for instance because the entity was loaded by another class loader,
+     * the setter is called through its method handle instead.
+     */
+    @SuppressWarnings("unchecked")
+    private static <E> BiConsumer<E, Object> setter(Class<E> type, Method writeMethod) {
+        MethodHandle handle;
+        MethodHandles.Lookup lookup;
+        try {
+            lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            handle = lookup.unreflect(writeMethod);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access the setter " + writeMethod, e);
+        }
+
+        try {
+            Class<?> parameterType = ClassUtils.resolvePrimitiveIfNecessary(writeMethod.getParameterTypes()[0]);
+            CallSite site = LambdaMetafactory.metafactory(
+                    lookup,
+                    "accept",
+                    MethodType.methodType(BiConsumer.class),
+                    MethodType.methodType(void.class, Object.class, Object.class),
+                    handle,
+                    MethodType.methodType(void.class, type, parameterType));
+            return (BiConsumer<E, Object>) site.getTarget().invoke();
+        } catch (Throwable e) {
+            MethodHandle generic = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+            return (target, value) -> {
+                try {
+                    generic.invokeExact(target, value);
+                } catch (RuntimeException | Error t) {
+                    throw t;
+                } catch (Throwable t) {
+                    throw new IllegalStateException(t);
+                }
+            };
+        }
+    }
+
+    /**
+     * Returns the coercion of deserialized JSON values to the given type, or of anything the shared conversion service
+     * can convert.
+     */
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> coercionTo(Class<?> propertyType) {
+        Class<?> type = ClassUtils.resolvePrimitiveIfNecessary(propertyType);
+        if (Number.class.isAssignableFrom(type)) {
+            Class<? extends Number> numberType = (Class<? extends Number>) type;
+            return value -> value instanceof Number number
+                    ? NumberUtils.convertNumberToTargetClass(number, numberType)
+                    : CONVERSION_SERVICE.convert(value, type);
+        }
+        return value -> CONVERSION_SERVICE.convert(value, type);
+    }
+
+    /**
+     * A patchable property: its generated setter and the coercion of its values.
+     */
+    private static final class Property<E> {
+        private final String name;
+        private final Class<?> type;
+        private final Class<?> boxedType;
+        private final BiConsumer<E, Object> setter;
+        private final Function<Object, Object> coercion;
+
+        private Property(String name, Class<?> type, BiConsumer<E, Object> setter, Function<Object, Object> coercion) {
+            this.name = name;
+            this.type = type;
+            this.boxedType = ClassUtils.resolvePrimitiveIfNecessary(type);
+            this.setter = setter;
+            this.coercion = coercion;
+        }
+
+        private Object coerce(Object value) {
+            if (value == null) {
+                if (type.isPrimitive()) {
+                    throw new IllegalArgumentException(name + " cannot be null.");
+                }
+                return null;
+            }
+            if (boxedType.isInstance(value)) {
+                return value;
+            }
+            try {
+                return coercion.apply(value);
+            } catch (ConversionException | IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid value for " + name + ": " + value, e);
+            }
+        }
+    }
+}
@@ -1,10 +1,17 @@
 package dev.femrek.reactadmindataprovider.service;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import dev.femrek.reactadmindataprovider.pagination.KeysetCursor;
+import dev.femrek.reactadmindataprovider.pagination.KeysetSlice;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 
 /**
  * Generic interface for CRUD operations on entities with support for filtering, pagination, and bulk operations.
@@ -20,18 +27,75 @@ public interface IRAService<T, C, ID> {
      * Finds entities matching the given filters and global search query.
      *
      * @param filters  A map of field names to values (e.g., "status" -> "active").
-     * @param pageable Pagination and sorting information.
+     * @param pageable Pagination and sorting information. The offset is not necessarily a multiple of the page size,
+     *                 so use {@link Pageable#getOffset()} rather than the page number.
      * @return A page of entities.
      */
     Page<T> findWithFilters(Map<String, String> filters, Pageable pageable);
 
+    /**
+     * Finds entities matching the given filters without counting the total number of matches.
+     * <p>
+     * Used together with {@link #countWithFilters(Map, long)} when the controller computes the total with a
+     * {@link dev.femrek.reactadmindataprovider.count.CountStrategy}. Implementations should fetch
+     * {@code pageSize + 1} rows to tell whether a next page exists instead of running a count query.
+     * <p>
+     * The default implementation delegates to {@link #findWithFilters(Map, Pageable)}, whose total is then used as is.
+     *
+     * @param filters  A map of field names to values (e.g., "status" -> "active").
+     * @param pageable Pagination and sorting information.
+     * @return A slice of entities.
+     */
+    default Slice<T> findSliceWithFilters(Map<String, String> filters, Pageable pageable) {
+        return findWithFilters(filters, pageable);
+    }
+
+    /**
+     * Finds entities matching the given filters without counting, reading only the requested fields.
+     * <p>
+     * Called instead of {@link #findSliceWithFilters(Map, Pageable)} when the client asks for a sparse fieldset with
+     * the <code>_fields</code> parameter. Implementations built on JPA specifications can use
+     * {@link dev.femrek.reactadmindataprovider.jpa.SliceQuery#findSlice(org.springframework.data.jpa.domain.Specification,
+     * Pageable, java.util.Collection, java.util.function.Supplier)} so that the other columns are not selected.
+     * <p>
+     * The fields are a hint: the default implementation ignores them and delegates to
+     * {@link #findSliceWithFilters(Map, Pageable)}.
+     *
+     * @param filters  A map of field names to values (e.g., "status" -> "active").
+     * @param pageable Pagination and sorting information.
+     * @param fields   The names of the fields to return, always including "id"; empty for all fields.
+     * @return A slice of entities, possibly with only the requested fields set.
+     */
+    default Slice<T> findSliceWithFilters(Map<String, String> filters, Pageable pageable, Set<String> fields) {
+        return findSliceWithFilters(filters, pageable);
+    }
+
+    /**
+     * Counts the entities matching the given filters, stopping at the given limit.
+     * <p>
+     * Implementations can stop scanning once {@code limit} rows are found, e.g. with
+     * {@code SELECT count(*) FROM (SELECT 1 FROM ... LIMIT :limit)}.
+     * <p>
+     * The default implementation reads the total of a single-row {@link #findWithFilters(Map, Pageable)} query, which
+     * counts every matching row; override it to bound the work, as
+     * {@link dev.femrek.reactadmindataprovider.jpa.SliceQuery#count} does.
+     *
+     * @param filters A map of field names to values (e.g., "status" -> "active").
+     * @param limit   The maximum count of interest; {@link Long#MAX_VALUE} for an exact count.
+     * @return The number of matching entities, at most {@code limit}.
+     */
+    default long countWithFilters(Map<String, String> filters, long limit) {
+        return Math.min(findWithFilters(filters, PageRequest.of(0, 1)).getTotalElements(), limit);
+    }
+
     /**
      * Finds entities that reference another entity, based on a target field and ID, along with additional filters.
      *
      * @param target   The name of the field that references the target entity (e.g., "userId").
      * @param targetId The ID of the target entity to match (e.g., 123).
      * @param filters  Additional filters to apply (e.g., "status" -> "active").
-     * @param pageable Pagination and sorting information.
+     * @param pageable Pagination and sorting information. The offset is not necessarily a multiple of the page size,
+     *                 so use {@link Pageable#getOffset()} rather than the page number.
      * @return A page of entities referencing the target entity and matching the filters.
      */
     Page<T> findWithTargetAndFilters(String target,
@@ -39,6 +103,61 @@ public interface IRAService<T, C, ID> {
                                      Map<String, String> filters,
                                      Pageable pageable);
 
+    /**
+     * Finds entities matching the given filters that come after the given cursor, using keyset (seek) pagination.
+     * <p>
+     * Unlike {@link #findWithFilters(Map, Pageable)}, no OFFSET and no count query are involved, so the cost of a
+     * window does not depend on how deep it is. Implementations built on JPA specifications can use
+     * {@link dev.femrek.reactadmindataprovider.pagination.KeysetQueries} to build the seek condition and the next
+     * cursor.
+     * <p>
+     * The default implementation does not support keyset pagination.
+     *
+     * @param filters A map of field names to values (e.g., "status" -> "active").
+     * @param after   The cursor of the last row of the previous window, or null for the first window.
+     * @param sort    The sort of the window. The sort field is followed by the identifier as a tiebreaker.
+     * @param limit   The maximum number of entities to return.
+     * @return The window of entities and the cursor of the next window.
+     * @throws UnsupportedOperationException if the service does not support keyset pagination.
+     */
+    default KeysetSlice<T> findWithFiltersAfter(Map<String, String> filters,
+                                                KeysetCursor after,
+                                                Sort sort,
+                                                int limit) {
+        throw new UnsupportedOperationException("Keyset pagination is not supported by this resource.");
+    }
+
+    /**
+     * Finds entities matching the given filters that come after the given cursor, skipping the first {@code skip} of
+     * them.
+     * <p>
+     * Used by the controller to serve deep offset windows from a recorded boundary (see
+     * {@link dev.femrek.reactadmindataprovider.pagination.DeepOffsetPaging}). Implementations can apply the skip as
+     * the OFFSET of the seek query, e.g. with {@link dev.femrek.reactadmindataprovider.jpa.SliceQuery} and
+     * {@link dev.femrek.reactadmindataprovider.pagination.KeysetQueries#slice(Slice, Sort, java.util.function.Function)}.
+     * <p>
+     * The default implementation fetches {@code skip + limit} entities with
+     * {@link #findWithFiltersAfter(Map, KeysetCursor, Sort, int)} and drops the first {@code skip} of them.
+     *
+     * @param filters A map of field names to values (e.g., "status" -> "active").
+     * @param after   The cursor of the last row before the skipped ones, or null to start from the first row.
+     * @param sort    The sort of the window. The sort field is followed by the identifier as a tiebreaker.
+     * @param skip    The number of entities after the cursor to skip.
+     * @param limit   The maximum number of entities to return.
+     * @return The window of entities and the cursor of the next window.
+     * @throws UnsupportedOperationException if the service does not support keyset pagination.
+     */
+    default KeysetSlice<T> findWithFiltersAfter(Map<String, String> filters,
+                                                KeysetCursor after,
+                                                Sort sort,
+                                                int skip,
+                                                int limit) {
+        KeysetSlice<T> slice = findWithFiltersAfter(filters, after, sort, Math.addExact(skip, limit));
+        List<T> content = slice.getContent();
+        return new KeysetSlice<>(content.subList(Math.min(skip, content.size()), content.size()),
+                slice.getNextCursor());
+    }
+
     /**
      * Retrieves all entities by their IDs.
      *
@@ -55,6 +174,22 @@ public interface IRAService<T, C, ID> {
      */
     T findById(ID id);
 
+    /**
+     * Retrieves the version of a single entity by its ID, without loading the entity.
+     * <p>
+     * Used by the controller to answer conditional getOne requests with <code>304 Not Modified</code> before the
+     * entity is loaded. The version must change whenever the entity does, like a JPA {@link jakarta.persistence.Version}
+     * attribute, which {@link dev.femrek.reactadmindataprovider.jpa.VersionQuery} selects.
+     * <p>
+     * The default implementation does not know the version, and the entity tag is then computed from the response body.
+     *
+     * @param id The ID of the entity.
+     * @return The version of the entity, or null if it is unknown or the entity does not exist.
+     */
+    default Object findVersionById(ID id) {
+        return null;
+    }
+
     /**
      * Creates a new entity.
      *
@@ -63,6 +198,21 @@ public interface IRAService<T, C, ID> {
      */
     T create(C data);
 
+    /**
+     * Creates many entities. By default, every entity is created by {@link #create}; implementations should override
+     * it to insert the entities in batches.
+     *
+     * @param data The entity data to save.
+     * @return The saved entities, in the order of the given data.
+     */
+    default List<T> createMany(List<C> data) {
+        List<T> created = new ArrayList<>(data.size());
+        for (C item : data) {
+            created.add(create(item));
+        }
+        return created;
+    }
+
     /**
      * Updates specific fields of an existing entity.
      *
@@ -0,0 +1,464 @@
+package dev.femrek.reactadmindataprovider.service;
+
+import dev.femrek.reactadmindataprovider.jpa.BulkDeleteQuery;
+import dev.femrek.reactadmindataprovider.jpa.BulkUpdateQuery;
+import dev.femrek.reactadmindataprovider.jpa.DtoProjection;
+import dev.femrek.reactadmindataprovider.jpa.EntityFilters;
+import dev.femrek.reactadmindataprovider.jpa.IdListQuery;
+import dev.femrek.reactadmindataprovider.jpa.ProjectionQuery;
+import dev.femrek.reactadmindataprovider.jpa.SliceQuery;
+import dev.femrek.reactadmindataprovider.jpa.VersionQuery;
+import dev.femrek.reactadmindataprovider.pagination.KeysetCursor;
+import dev.femrek.reactadmindataprovider.pagination.KeysetQueries;
+import dev.femrek.reactadmindataprovider.pagination.KeysetSlice;
+import dev.femrek.reactadmindataprovider.pagination.OffsetPageRequest;
+import dev.femrek.reactadmindataprovider.patch.FieldPatcher;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.hibernate.Session;
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.JpaEntityInformationSupport;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.ClassUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Base class of {@link IRAService} implementations backed by a Spring Data JPA repository.
+ * <p>
+ * Filtering, paging, keyset pagination and the CRUD operations are implemented once on top of
+ * {@link JpaSpecificationExecutor}; subclasses only map between the entity and its DTOs:
+ * <pre>{@code
+ * @Service
+ * public class PostService extends RAJpaService<Post, PostResponseDTO, PostCreateDTO, Long> {
+ *     public PostService(PostRepository repository, EntityManager entityManager) {
+ *         super(repository, entityManager, Post.class, "title", "content");
+ *     }
+ *
+ *     protected PostResponseDTO toResponseDTO(Post post) { ... }
+ *
+ *     protected Post toEntity(PostCreateDTO data) { ... }
+ * }
+ * }</pre>
+ * The filters are compiled by {@link EntityFilters} when the service is created: every basic attribute of the entity
+ * can be filtered on, and the global search {@code q} matches the given search fields. Updates are applied by a
+ * {@link FieldPatcher} over the basic attributes that are neither the identifier nor the version.
+ *
+ * @param <E>  the entity type
+ * @param <T>  the Response DTO type
+ * @param <C>  the Create DTO type
+ * @param <ID> the type of the entity's identifier
+ */
+public abstract class RAJpaService<E, T, C, ID> implements IRAService<T, C, ID> {
+    /**
+     * The default number of inserts per JDBC batch of {@link #createMany}.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 50;
+
+    private final JpaRepository<E, ID> repository;
+    private final EntityManager entityManager;
+    private final JpaSpecificationExecutor<E> specificationExecutor;
+    private final JpaEntityInformation<E, ?> entityInformation;
+    private final EntityFilters<E> entityFilters;
+    private final SliceQuery<E> sliceQuery;
+    private final FieldPatcher<E> fieldPatcher;
+    private final BulkUpdateQuery<E> bulkUpdateQuery;
+    private final BulkDeleteQuery<E> bulkDeleteQuery;
+    private final IdListQuery<E> idListQuery;
+    private final VersionQuery<E> versionQuery;
+    private final Supplier<T> responseDTOFactory;
+    private volatile ProjectionQuery<E, T> projectionQuery;
+
+    /**
+     * Creates the service and resolves the filterable fields of the entity.
+     *
+     * @param repository    the repository of the entity, supporting specifications
+     * @param entityManager the entity manager of the persistence unit managing the entity
+     * @param domainClass   the entity class
+     * @param searchFields  the names of the string attributes matched by the global search {@code q}
+     * @param <R>           the repository type
+     */
+    protected <R extends JpaRepository<E, ID> & JpaSpecificationExecutor<E>> RAJpaService(R repository,
+                                                                                          EntityManager entityManager,
+                                                                                          Class<E> domainClass,
+                                                                                          String... searchFields) {
+        this.repository = repository;
+        this.entityManager = entityManager;
+        this.specificationExecutor = repository;
+        this.entityInformation = JpaEntityInformationSupport.getEntityInformation(domainClass, entityManager);
+        this.entityFilters = new EntityFilters<>(entityManager.getMetamodel(), domainClass, List.of(searchFields));
+        this.sliceQuery = new SliceQuery<>(entityManager, domainClass);
+        this.fieldPatcher = FieldPatcher.of(domainClass, patchableFields(entityManager.getMetamodel(), domainClass));
+        this.bulkUpdateQuery = new BulkUpdateQuery<>(entityManager, domainClass);
+        this.bulkDeleteQuery = new BulkDeleteQuery<>(entityManager, domainClass);
+        this.idListQuery = new IdListQuery<>(entityManager, domainClass);
+        this.versionQuery = new VersionQuery<>(entityManager, domainClass);
+        this.responseDTOFactory = noArgFactory(GenericTypeResolver.resolveTypeArguments(getClass(), RAJpaService.class));
+    }
+
+    /**
+     * Maps an entity to its Response DTO.
+     *
+     * @param entity the entity
+     * @return the Response DTO
+     */
+    protected abstract T toResponseDTO(E entity);
+
+    /**
+     * Creates a new, unsaved entity from a Create DTO.
+     *
+     * @param data the Create DTO
+     * @return the entity to save
+     */
+    protected abstract E toEntity(C data);
+
+    /**
+     * Applies the fields of an update request to an entity. By default, the basic attributes other than the identifier
+     * and the version are set through their setters, and other fields are ignored. Override to map other fields.
+     *
+     * @param entity the entity to update
+     * @param fields the new values, by field name
+     * @throws IllegalArgumentException if a value cannot be coerced to the type of its attribute
+     */
+    protected void applyFields(E entity, Map<String, Object> fields) {
+        fieldPatcher.apply(entity, fields);
+    }
+
+    /**
+     * The projection reading Response DTOs straight from the entity columns. When one is returned, the list, getOne
+     * and getMany reads select only its columns into the DTOs, without loading entities nor using
+     * {@link #toResponseDTO}; keyset pagination and the writes keep working on entities.
+     *
+     * @return the projection, or null to read entities; null by default
+     */
+    protected DtoProjection<E, T> getProjection() {
+        return null;
+    }
+
+    /**
+     * Creates the empty Response DTOs that sparse fieldsets ({@code _fields}) are read into when no
+     * {@link #getProjection() projection} is declared; only the requested attributes are selected and set.
+     *
+     * @return the factory, or null to read entities and ignore the requested fields; by default the public no-argument
+     * constructor of the Response DTO type, if it has one
+     */
+    protected Supplier<T> getResponseDTOFactory() {
+        return responseDTOFactory;
+    }
+
+    /**
+     * Whether {@link #updateMany} sets the fields with set-based {@code UPDATE ... WHERE id IN (...)} statements
+     * instead of loading, patching and saving every entity. The bulk path sets the same fields as the default
+     * {@link #applyFields}, without hydrating any entity, but bypasses entity listeners and overrides of
+     * {@link #applyFields}.
+     *
+     * @return true to update in bulk; false by default
+     */
+    protected boolean isBulkUpdateMany() {
+        return false;
+    }
+
+    /**
+     * Whether {@link #deleteMany} removes the entities with set-based {@code DELETE ... WHERE id IN (...)} statements
+     * instead of loading and removing every entity. The deleted ids are reported by the delete statement itself where
+     * the database supports it. The bulk path bypasses entity listeners and cascades.
+     *
+     * @return true to delete in bulk; false by default
+     */
+    protected boolean isBulkDeleteMany() {
+        return false;
+    }
+
+    /**
+     * The number of inserts {@link #createMany} sends to the database per JDBC batch. The persistence context is
+     * flushed and the created entities are detached after every batch, so memory stays bounded on large imports.
+     * Hibernate cannot batch the inserts of entities whose ids are generated by {@code IDENTITY} columns.
+     *
+     * @return the batch size, at least 1; {@value #DEFAULT_BATCH_SIZE} by default
+     */
+    protected int getBatchSize() {
+        return DEFAULT_BATCH_SIZE;
+    }
+
+    /**
+     * Builds the specification matching the given filters. Override to add filters that are not plain attributes.
+     *
+     * @param filters the filters of the request, by field name
+     * @return the specification
+     */
+    protected Specification<E> toSpecification(Map<String, String> filters) {
+        return entityFilters.toSpecification(filters);
+    }
+
+    /**
+     * @return the repository of the entity
+     */
+    protected JpaRepository<E, ID> getRepository() {
+        return repository;
+    }
+
+    @Override
+    public Page<T> findWithFilters(Map<String, String> filters, Pageable pageable) {
+        ProjectionQuery<E, T> projectionQuery = projectionQuery();
+        if (projectionQuery != null) {
+            return projectionQuery.findAll(toSpecification(filters), pageable);
+        }
+        return specificationExecutor.findAll(toSpecification(filters), pageable).map(this::toResponseDTO);
+    }
+
+    @Override
+    public Slice<T> findSliceWithFilters(Map<String, String> filters, Pageable pageable) {
+        ProjectionQuery<E, T> projectionQuery = projectionQuery();
+        if (projectionQuery != null) {
+            return projectionQuery.findSlice(toSpecification(filters), pageable);
+        }
+        return sliceQuery.findSlice(toSpecification(filters), pageable).map(this::toResponseDTO);
+    }
+
+    @Override
+    public Slice<T> findSliceWithFilters(Map<String, String> filters, Pageable pageable, Set<String> fields) {
+        if (fields.isEmpty()) {
+            return findSliceWithFilters(filters, pageable);
+        }
+        ProjectionQuery<E, T> projectionQuery = projectionQuery();
+        if (projectionQuery != null) {
+            return projectionQuery.findSlice(toSpecification(filters), pageable, fields);
+        }
+        Supplier<T> dtoFactory = getResponseDTOFactory();
+        if (dtoFactory == null) {
+            return findSliceWithFilters(filters, pageable);
+        }
+        return sliceQuery.findSlice(toSpecification(filters), pageable, fields, dtoFactory);
+    }
+
+    @Override
+    public long countWithFilters(Map<String, String> filters, long limit) {
+        return sliceQuery.count(toSpecification(filters), limit);
+    }
+
+    @Override
+    public Page<T> findWithTargetAndFilters(String target,
+                                            String targetId,
+                                            Map<String, String> filters,
+                                            Pageable pageable) {
+        Map<String, String> targetFilters = filters != null ? new HashMap<>(filters) : new HashMap<>();
+        targetFilters.put(target, targetId);
+        return findWithFilters(targetFilters, pageable);
+    }
+
+    @Override
+    public KeysetSlice<T> findWithFiltersAfter(Map<String, String> filters, KeysetCursor after, Sort sort, int limit) {
+        Specification<E> spec = toSpecification(filters).and(KeysetQueries.after(after, sort));
+        List<E> rows = specificationExecutor.findBy(spec, query -> query.sortBy(sort).limit(limit + 1).all());
+        return KeysetQueries.slice(rows, limit, sort, this::toResponseDTO);
+    }
+
+    @Override
+    public KeysetSlice<T> findWithFiltersAfter(Map<String, String> filters,
+                                               KeysetCursor after,
+                                               Sort sort,
+                                               int skip,
+                                               int limit) {
+        Specification<E> spec = toSpecification(filters).and(KeysetQueries.after(after, sort));
+        Slice<E> slice = sliceQuery.findSlice(spec, OffsetPageRequest.of(skip, limit, sort));
+        return KeysetQueries.slice(slice, sort, this::toResponseDTO);
+    }
+
+    @Override
+    public List<T> findAllById(Iterable<ID> ids) {
+        ProjectionQuery<E, T> projectionQuery = projectionQuery();
+        if (projectionQuery != null) {
+            return projectionQuery.findAllById(toList(ids));
+        }
+        if (idListQuery.isSupported()) {
+            return idListQuery.findAll(toList(ids), this::toResponseDTO);
+        }
+        return repository.findAllById(ids).stream().map(this::toResponseDTO).toList();
+    }
+
+    @Override
+    public T findById(ID id) {
+        ProjectionQuery<E, T> projectionQuery = projectionQuery();
+        if (projectionQuery != null) {
+            return projectionQuery.findById(id).orElseThrow(() -> notFound(id));
+        }
+        return toResponseDTO(findEntity(id));
+    }
+
+    @Override
+    public Object findVersionById(ID id) {
+        return versionQuery.findVersion(id);
+    }
+
+    @Override
+    public T create(C data) {
+        return toResponseDTO(repository.save(toEntity(data)));
+    }
+
+    @Override
+    @Transactional
+    public List<T> createMany(List<C> data) {
+        int batchSize = Math.max(getBatchSize(), 1);
+        Session session = entityManager.unwrap(Session.class);
+        Integer sessionBatchSize = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(batchSize);
+        try {
+            List<T> created = new ArrayList<>(data.size());
+            List<E> batch = new ArrayList<>(Math.min(batchSize, data.size()));
+            for (C item : data) {
+                E entity = toEntity(item);
+                if (!entityInformation.isNew(entity)) {
+                    throw new IllegalArgumentException("Cannot create the "
+                            + entityInformation.getJavaType().getSimpleName() + " with the id "
+                            + entityInformation.getId(entity) + ": createMany only inserts new entities.");
+                }
+                entityManager.persist(entity);
+                batch.add(entity);
+                if (batch.size() == batchSize) {
+                    flushBatch(batch, created);
+                }
+            }
+            flushBatch(batch, created);
+            return created;
+        } finally {
+            session.setJdbcBatchSize(sessionBatchSize);
+        }
+    }
+
+    @Override
+    public T update(ID id, Map<String, Object> fields) {
+        E entity = findEntity(id);
+        applyFields(entity, fields);
+        return toResponseDTO(repository.save(entity));
+    }
+
+    @Override
+    @Transactional
+    public List<ID> updateMany(Iterable<ID> ids, Map<String, Object> fields) {
+        if (isBulkUpdateMany()) {
+            return bulkUpdateQuery.update(toList(ids), fieldPatcher.coerce(fields));
+        }
+        List<E> entities = repository.findAllById(ids);
+        entities.forEach(entity -> applyFields(entity, fields));
+        return idsOf(repository.saveAll(entities));
+    }
+
+    @Override
+    public void deleteById(ID id) {
+        repository.deleteById(id);
+    }
+
+    @Override
+    @Transactional
+    public List<ID> deleteMany(Iterable<ID> ids) {
+        if (isBulkDeleteMany()) {
+            return bulkDeleteQuery.delete(toList(ids));
+        }
+        List<E> entities = repository.findAllById(ids);
+        repository.deleteAll(entities);
+        return idsOf(entities);
+    }
+
+    /**
+     * Sends the inserts of a batch, maps its entities in order and detaches them.
+     */
+    private void flushBatch(List<E> batch, List<T> created) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        for (E entity : batch) {
+            created.add(toResponseDTO(entity));
+            entityManager.detach(entity);
+        }
+        batch.clear();
+    }
+
+    private E findEntity(ID id) {
+        return repository.findById(id).orElseThrow(() -> notFound(id));
+    }
+
+    private EntityNotFoundException notFound(ID id) {
+        return new EntityNotFoundException(entityInformation.getJavaType().getSimpleName() + " not found with id: " + id);
+    }
+
+    /**
+     * Returns the factory calling the public no-argument constructor of the resolved Response DTO type, if any.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Supplier<T> noArgFactory(Class<?>[] typeArguments) {
+        if (typeArguments == null || typeArguments[1] == Object.class) {
+            return null;
+        }
+        Constructor<T> constructor = (Constructor<T>) ClassUtils.getConstructorIfAvailable(typeArguments[1]);
+        return constructor != null ? () -> BeanUtils.instantiateClass(constructor) : null;
+    }
+
+    /**
+     * Returns the projection query of {@link #getProjection()}, resolved on first use, or null without projection.
+     */
+    private ProjectionQuery<E, T> projectionQuery() {
+        ProjectionQuery<E, T> query = projectionQuery;
+        if (query == null) {
+            DtoProjection<E, T> projection = getProjection();
+            if (projection == null) {
+                return null;
+            }
+            query = new ProjectionQuery<>(entityManager, projection);
+            projectionQuery = query;
+        }
+        return query;
+    }
+
+    /**
+     * Returns the names of the basic attributes with a setter, except the identifier and the version.
+     */
+    private static <E> List<String> patchableFields(Metamodel metamodel, Class<E> domainClass) {
+        List<String> fields = new ArrayList<>();
+        for (SingularAttribute<? super E, ?> attribute : metamodel.entity(domainClass).getSingularAttributes()) {
+            if (attribute.getPersistentAttributeType() != Attribute.PersistentAttributeType.BASIC
+                    || attribute.isId() || attribute.isVersion()) {
+                continue;
+            }
+            PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(domainClass, attribute.getName());
+            if (descriptor != null && descriptor.getWriteMethod() != null) {
+                fields.add(attribute.getName());
+            }
+        }
+        return fields;
+    }
+
+    private List<ID> toList(Iterable<ID> ids) {
+        List<ID> list = new ArrayList<>();
+        ids.forEach(list::add);
+        return list;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ID> idsOf(List<E> entities) {
+        List<ID> ids = new ArrayList<>(entities.size());
+        for (E entity : entities) {
+            ids.add((ID) entityInformation.getId(entity));
+        }
+        return ids;
+    }
+}
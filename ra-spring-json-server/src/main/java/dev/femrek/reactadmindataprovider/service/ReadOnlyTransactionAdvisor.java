@@ -0,0 +1,138 @@
+package dev.femrek.reactadmindataprovider.service;
+
+import dev.femrek.reactadmindataprovider.jpa.ReadHints;
+import org.aopalliance.aop.Advice;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.support.AbstractPointcutAdvisor;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.DefaultTransactionAttribute;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+
+import java.lang.reflect.Method;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Runs the read methods of every {@link IRAService} bean within a read-only transaction.
+ * <p>
+ * With the JPA transaction manager, a read-only transaction makes Hibernate load the entities read-only and sets the
+ * flush mode of the session to {@code MANUAL}: no snapshot is kept for dirty checking and nothing is flushed at commit.
+ * The JDBC connection is flagged read-only too, which lets a routing data source send the queries to a replica. The
+ * {@link ReadHints} of the advisor are bound to the transaction, so the queries of the
+ * {@link dev.femrek.reactadmindataprovider.jpa} package also get the configured JDBC fetch size.
+ * <p>
+ * Methods and classes annotated with {@link Transactional} are left to their own transaction settings. A read method
+ * called within a read-write transaction joins it. Without a unique transaction manager in the context, the methods are
+ * invoked as is.
+ */
+public class ReadOnlyTransactionAdvisor extends AbstractPointcutAdvisor implements BeanFactoryAware {
+    /**
+     * The names of the read methods of {@link IRAService}.
+     */
+    public static final Set<String> READ_METHODS = Set.of(
+            "findWithFilters",
+            "findSliceWithFilters",
+            "countWithFilters",
+            "findWithTargetAndFilters",
+            "findWithFiltersAfter",
+            "findAllById",
+            "findById",
+            "findVersionById");
+
+    private final ReadHints readHints;
+    private final Pointcut pointcut = new ReadMethodPointcut();
+    private final ReadOnlyTransactionInterceptor interceptor = new ReadOnlyTransactionInterceptor();
+
+    /**
+     * @param readHints the hints bound to the read-only transactions
+     */
+    public ReadOnlyTransactionAdvisor(ReadHints readHints) {
+        this.readHints = Objects.requireNonNull(readHints, "readHints");
+    }
+
+    /**
+     * @return the hints bound to the read-only transactions
+     */
+    public ReadHints getReadHints() {
+        return readHints;
+    }
+
+    @Override
+    public Pointcut getPointcut() {
+        return pointcut;
+    }
+
+    @Override
+    public Advice getAdvice() {
+        return interceptor;
+    }
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) {
+        interceptor.setBeanFactory(beanFactory);
+    }
+
+    private static final class ReadMethodPointcut extends StaticMethodMatcherPointcut {
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            if (targetClass == null
+                    || !IRAService.class.isAssignableFrom(targetClass)
+                    || !READ_METHODS.contains(method.getName())) {
+                return false;
+            }
+            Method targetMethod = AopUtils.getMostSpecificMethod(method, targetClass);
+            return !AnnotatedElementUtils.hasAnnotation(targetMethod, Transactional.class)
+                    && !AnnotatedElementUtils.hasAnnotation(targetClass, Transactional.class);
+        }
+    }
+
+    private final class ReadOnlyTransactionInterceptor extends TransactionInterceptor {
+        private volatile Boolean transactionManagerAvailable;
+
+        private ReadOnlyTransactionInterceptor() {
+            DefaultTransactionAttribute attribute =
+                    new DefaultTransactionAttribute(TransactionDefinition.PROPAGATION_REQUIRED);
+            attribute.setReadOnly(true);
+            TransactionAttribute readOnly = attribute;
+            setTransactionAttributeSource((method, targetClass) -> readOnly);
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            if (!isTransactionManagerAvailable()) {
+                return invocation.proceed();
+            }
+            Class<?> targetClass = invocation.getThis() != null ? AopUtils.getTargetClass(invocation.getThis()) : null;
+            return invokeWithinTransaction(invocation.getMethod(), targetClass, () -> {
+                boolean bound = readHints.bind();
+                try {
+                    return invocation.proceed();
+                } finally {
+                    if (bound) {
+                        ReadHints.unbind();
+                    }
+                }
+            });
+        }
+
+        private boolean isTransactionManagerAvailable() {
+            Boolean available = transactionManagerAvailable;
+            if (available == null) {
+                BeanFactory beanFactory = getBeanFactory();
+                available = beanFactory != null
+                        && beanFactory.getBeanProvider(TransactionManager.class).getIfUnique() != null;
+                transactionManagerAvailable = available;
+            }
+            return available;
+        }
+    }
+}
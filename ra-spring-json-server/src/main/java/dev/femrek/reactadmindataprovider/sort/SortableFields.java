@@ -0,0 +1,247 @@
+package dev.femrek.reactadmindataprovider.sort;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.data.domain.Sort;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Member;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Registry of the fields a resource can be sorted by, each with optional tiebreakers.
+ * <p>
+ * Return it from {@link dev.femrek.reactadmindataprovider.controller.RAController#getSortableFields()} to reject
+ * sorts on any other field with <code>400 Bad Request</code>, and to append the tiebreakers of every requested field to
+ * the ORDER BY so that the order of the rows is deterministic:
+ * <pre>{@code
+ * private static final SortableFields SORTABLE_FIELDS = SortableFields.of(Post.class)
+ *         .field("id")
+ *         .field("title", "id")
+ *         .field("createdAt", "id");
+ * }</pre>
+ * The registry is validated against the JPA metamodel at startup: every field and tiebreaker must be an attribute of
+ * the entity, and the order of every field must end with the identifier or a unique column. A field that is neither
+ * the identifier, a unique column nor the leading column of an {@link Index} declared on the entity is reported as a
+ * warning, since its index may be created outside of the JPA mapping.
+ * <p>
+ * Instances are immutable.
+ */
+public final class SortableFields {
+    private static final Log log = LogFactory.getLog(SortableFields.class);
+
+    private static final SortableFields UNRESTRICTED = new SortableFields(null, null);
+
+    private final Class<?> entityClass;
+    private final Map<String, List<String>> tiebreakers;
+
+    private SortableFields(Class<?> entityClass, Map<String, List<String>> tiebreakers) {
+        this.entityClass = entityClass;
+        this.tiebreakers = tiebreakers;
+    }
+
+    /**
+     * Returns a registry allowing any field, without tiebreakers. The field names are passed to JPA as they are.
+     *
+     * @return the unrestricted registry
+     */
+    public static SortableFields unrestricted() {
+        return UNRESTRICTED;
+    }
+
+    /**
+     * Returns an empty registry for the given entity. Add the allowed fields with {@link #field(String, String...)}.
+     *
+     * @param entityClass the entity the fields belong to
+     * @return a registry allowing no field yet
+     */
+    public static SortableFields of(Class<?> entityClass) {
+        return new SortableFields(Objects.requireNonNull(entityClass, "entityClass"), Map.of());
+    }
+
+    /**
+     * Returns a copy of this registry also allowing the given field.
+     *
+     * @param name        the name of the field, as sent in <code>_sort</code>
+     * @param tiebreakers the fields appended to the order after this field, in the same direction
+     * @return the extended registry
+     * @throws IllegalStateException if this registry is {@link #unrestricted()}
+     */
+    public SortableFields field(String name, String... tiebreakers) {
+        if (!isRestricted()) {
+            throw new IllegalStateException("Fields cannot be added to the unrestricted registry; use of(entityClass).");
+        }
+        Objects.requireNonNull(name, "name");
+        Map<String, List<String>> fields = new LinkedHashMap<>(this.tiebreakers);
+        fields.put(name, List.of(tiebreakers));
+        return new SortableFields(entityClass, Collections.unmodifiableMap(fields));
+    }
+
+    /**
+     * @return whether sorting is restricted to the registered fields
+     */
+    public boolean isRestricted() {
+        return tiebreakers != null;
+    }
+
+    /**
+     * @return the entity the fields belong to; null for the unrestricted registry
+     */
+    public Class<?> getEntityClass() {
+        return entityClass;
+    }
+
+    /**
+     * @return the names of the registered fields; empty for the unrestricted registry
+     */
+    public Set<String> getFields() {
+        return isRestricted() ? tiebreakers.keySet() : Set.of();
+    }
+
+    /**
+     * @param field the name of a field
+     * @return whether the resource can be sorted by the field
+     */
+    public boolean isAllowed(String field) {
+        return !isRestricted() || tiebreakers.containsKey(field);
+    }
+
+    /**
+     * Builds the sort of a query from the requested orders, appending the tiebreakers of each field that are not
+     * already part of the sort.
+     *
+     * @param orders the requested orders
+     * @return the complete sort
+     * @throws IllegalArgumentException if a requested field is not allowed
+     */
+    public Sort toSort(List<Sort.Order> orders) {
+        Set<String> properties = new LinkedHashSet<>();
+        List<Sort.Order> result = new ArrayList<>();
+        for (Sort.Order order : orders) {
+            if (!isAllowed(order.getProperty())) {
+                throw new IllegalArgumentException("Sorting by " + order.getProperty() + " is not allowed.");
+            }
+            if (properties.add(order.getProperty())) {
+                result.add(order);
+            }
+        }
+        if (isRestricted()) {
+            for (Sort.Order order : orders) {
+                for (String tiebreaker : tiebreakers.get(order.getProperty())) {
+                    if (properties.add(tiebreaker)) {
+                        result.add(new Sort.Order(order.getDirection(), tiebreaker));
+                    }
+                }
+            }
+        }
+        return Sort.by(result);
+    }
+
+    /**
+     * Validates the registry against the JPA metamodel. Does nothing for the unrestricted registry.
+     *
+     * @param metamodel the metamodel of the persistence unit managing the entity
+     * @throws IllegalStateException if a field or tiebreaker is not an attribute of the entity, or if the order of a
+     *                               field does not end with the identifier or a unique column
+     */
+    public void validate(Metamodel metamodel) {
+        if (!isRestricted()) {
+            return;
+        }
+        EntityType<?> entityType;
+        try {
+            entityType = metamodel.entity(entityClass);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException(entityClass.getName() + " is not a managed entity.", e);
+        }
+
+        tiebreakers.forEach((field, fieldTiebreakers) -> {
+            SingularAttribute<?, ?> attribute = resolve(entityType, field);
+            boolean unique = isUnique(attribute);
+            for (String tiebreaker : fieldTiebreakers) {
+                unique = isUnique(resolve(entityType, tiebreaker));
+            }
+            if (!unique) {
+                throw new IllegalStateException("Sorting " + entityClass.getSimpleName() + " by " + field
+                        + " is not deterministic: its last tiebreaker must be the identifier or a unique column.");
+            }
+            if (!isIndexed(attribute)) {
+                log.warn("Sorting " + entityClass.getSimpleName() + " by " + field
+                        + " is allowed, but no index on it is declared in the entity mapping.");
+            }
+        });
+    }
+
+    private SingularAttribute<?, ?> resolve(EntityType<?> entityType, String path) {
+        ManagedType<?> type = entityType;
+        SingularAttribute<?, ?> attribute = null;
+        for (String name : path.split("\\.")) {
+            if (type == null) {
+                throw new IllegalStateException(path + " is not a sortable attribute of " + entityClass.getSimpleName());
+            }
+            try {
+                attribute = type.getSingularAttribute(name);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalStateException(path + " is not a sortable attribute of " + entityClass.getSimpleName(), e);
+            }
+            type = attribute.getType() instanceof ManagedType<?> managedType ? managedType : null;
+        }
+        return attribute;
+    }
+
+    private static boolean isUnique(SingularAttribute<?, ?> attribute) {
+        if (attribute.isId()) {
+            return true;
+        }
+        Column column = annotation(attribute, Column.class);
+        return column != null && column.unique();
+    }
+
+    private boolean isIndexed(SingularAttribute<?, ?> attribute) {
+        if (isUnique(attribute)) {
+            return true;
+        }
+        Table table = entityClass.getAnnotation(Table.class);
+        if (table == null) {
+            return false;
+        }
+        Column column = annotation(attribute, Column.class);
+        String columnName = normalize(column != null && !column.name().isEmpty() ? column.name() : attribute.getName());
+        for (Index index : table.indexes()) {
+            String leadingColumn = index.columnList().split(",")[0].trim().split("\\s+")[0];
+            if (normalize(leadingColumn).equals(columnName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <A extends Annotation> A annotation(Attribute<?, ?> attribute, Class<A> type) {
+        Member member = attribute.getJavaMember();
+        return member instanceof AnnotatedElement element ? element.getAnnotation(type) : null;
+    }
+
+    /**
+     * Makes logical and physical column names comparable, e.g. {@code createdAt} and {@code created_at}.
+     */
+    private static String normalize(String columnName) {
+        return columnName.replace("_", "").replace("\"", "").replace("`", "").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,139 @@
+package dev.femrek.reactadmindataprovider.benchmark;
+
+import dev.femrek.reactadmindataprovider.jpa.PooledIdEntity;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PersistenceConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Compares the insert throughput of entities with {@code IDENTITY} ids and with ids allocated by
+ * {@link PooledIdEntity}, persisted in JDBC batches as {@code createMany} does.
+ * <p>
+ * Run with {@code mvn -P benchmark test-compile exec:exec -Djmh.include=IdAllocationBenchmark}. The scores are creates
+ * per second. Against the in-memory H2 database the gap only reflects the statements saved by batching; the round trips
+ * saved on a remote database widen it further.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdAllocationBenchmark {
+    private static final int ROWS = 500;
+    private static final int BATCH_SIZE = 50;
+
+    private EntityManagerFactory entityManagerFactory;
+
+    @Setup(Level.Trial)
+    public void createEntityManagerFactory() {
+        entityManagerFactory = new PersistenceConfiguration("id-allocation-benchmark")
+                .managedClass(IdentityArticle.class)
+                .managedClass(PooledArticle.class)
+                .property(PersistenceConfiguration.JDBC_URL, "jdbc:h2:mem:id-allocation;DB_CLOSE_DELAY=-1")
+                .property(PersistenceConfiguration.JDBC_USER, "sa")
+                .property(PersistenceConfiguration.JDBC_PASSWORD, "")
+                .property(PersistenceConfiguration.SCHEMAGEN_DATABASE_ACTION, "drop-and-create")
+                .property("hibernate.jdbc.batch_size", String.valueOf(BATCH_SIZE))
+                .createEntityManagerFactory();
+    }
+
+    @TearDown(Level.Trial)
+    public void closeEntityManagerFactory() {
+        entityManagerFactory.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void identity() {
+        insert(i -> new IdentityArticle("Article " + i));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void pooled() {
+        insert(i -> new PooledArticle("Article " + i));
+    }
+
+    private void insert(IntFunction<Object> entityFactory) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            for (int i = 0; i < ROWS; i++) {
+                entityManager.persist(entityFactory.apply(i));
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.getTransaction().commit();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    /**
+     * An entity inserted as soon as it is persisted, to learn its id.
+     */
+    @Entity
+    public static class IdentityArticle {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+        private String title;
+
+        public IdentityArticle() {
+        }
+
+        public IdentityArticle(String title) {
+            this.title = title;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+    }
+
+    /**
+     * An entity whose id is allocated from the pool, inserted in batches at flush time.
+     */
+    @Entity
+    public static class PooledArticle extends PooledIdEntity {
+        private String title;
+
+        public PooledArticle() {
+        }
+
+        public PooledArticle(String title) {
+            this.title = title;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package dev.femrek.reactadmindataprovider.jpa;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the splitting and padding of the id lists of {@link IdListQuery} and {@link ProjectionQuery}.
+ */
+class TestIdChunks {
+    @Test
+    @DisplayName("Pads a chunk to the next power of two by repeating its last id, within the largest bucket")
+    void testPad() {
+        assertEquals(List.of(), IdChunks.pad(List.of(), 512));
+        assertEquals(List.of(1L), IdChunks.pad(List.of(1L), 512));
+        assertEquals(List.of(1L, 2L), IdChunks.pad(List.of(1L, 2L), 512));
+        assertEquals(List.of(1L, 2L, 3L, 3L), IdChunks.pad(List.of(1L, 2L, 3L), 512));
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 5L, 5L, 5L), IdChunks.pad(List.of(1L, 2L, 3L, 4L, 5L), 512));
+
+        List<Long> chunk = ids(1, 300);
+        List<Long> padded = IdChunks.pad(chunk, 512);
+        assertEquals(512, padded.size());
+        assertEquals(chunk, padded.subList(0, 300));
+        assertEquals(new HashSet<>(chunk), new HashSet<>(padded));
+
+        // The largest bucket is never exceeded
+        assertEquals(6, IdChunks.pad(ids(1, 5), 6).size());
+        assertSame(chunk, IdChunks.pad(chunk, 300));
+    }
+
+    @Test
+    @DisplayName("Splits distinct ids into chunks of at most the bucket size, keeping their order")
+    void testSplit() {
+        List<Long> ids = new ArrayList<>(ids(1, 5));
+        ids.add(3L);
+        assertEquals(List.of(List.of(1L, 2L), List.of(3L, 4L), List.of(5L)), IdChunks.split(ids, 2));
+        assertEquals(List.of(), IdChunks.split(List.of(), 2));
+    }
+
+    @Test
+    @DisplayName("Fetches the ids above the bucket size in padded chunks, one after the other")
+    void testFetchAcrossChunks() {
+        List<Long> ids = ids(1, 1100);
+        List<Integer> chunkSizes = new ArrayList<>();
+        List<Long> rows = IdChunks.fetch(ids, 512, chunk -> {
+            chunkSizes.add(chunk.size());
+            return new ArrayList<>(new HashSet<>(chunk));
+        });
+
+        assertEquals(List.of(512, 512, 128), chunkSizes);
+        assertEquals(1100, rows.size());
+        assertEquals(new HashSet<>(ids), new HashSet<>(rows));
+        assertEquals(List.of(), IdChunks.fetch(List.<Long>of(), 512, chunk -> fail("No chunk to fetch")));
+    }
+
+    private static List<Long> ids(long from, long to) {
+        return LongStream.rangeClosed(from, to).boxed().toList();
+    }
+}
@@ -0,0 +1,42 @@
+package dev.femrek.reactadmindataprovider.unit;
+
+import jakarta.persistence.*;
+
+/**
+ * Category entity for testing projections through a nullable to-one association.
+ * A post may belong to a category.
+ */
+@Entity
+@Table(name = "categories")
+@SuppressWarnings("unused")
+class Category {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    public Category() {
+    }
+
+    public Category(String name) {
+        this.name = name;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
@@ -7,7 +7,11 @@ import jakarta.persistence.*;
  * Each post belongs to a user (many-to-one relationship).
  */
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+        @Index(columnList = "title"),
+        @Index(columnList = "status"),
+        @Index(columnList = "userId")
+})
 @SuppressWarnings("unused")
 class Post {
     @Id
@@ -25,6 +29,13 @@ class Post {
 
     private String status;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "categoryId")
+    private Category category;
+
+    @Version
+    private Long version;
+
     public Post() {
     }
 
@@ -74,5 +85,21 @@ class Post {
     public void setStatus(String status) {
         this.status = status;
     }
+
+    public Category getCategory() {
+        return category;
+    }
+
+    public void setCategory(Category category) {
+        this.category = category;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
 
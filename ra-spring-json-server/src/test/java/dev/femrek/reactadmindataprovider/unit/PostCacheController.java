@@ -0,0 +1,41 @@
+package dev.femrek.reactadmindataprovider.unit;
+
+import dev.femrek.reactadmindataprovider.cache.RecordCache;
+import dev.femrek.reactadmindataprovider.controller.RAController;
+import dev.femrek.reactadmindataprovider.service.IRAService;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+/**
+ * REST controller exposing posts through a record cache, with conditional requests.
+ * The entity tags of getOne come from the versions of the posts, so cached posts are checked against them.
+ */
+@RestController
+@RequestMapping("/api/post-cache")
+@CrossOrigin(origins = "*")
+class PostCacheController extends RAController<PostResponseDTO, PostCreateDTO, Long> {
+    private final RecordCache<PostResponseDTO> recordCache = RecordCache.of(100, Duration.ofMinutes(5));
+    private final PostService postService;
+
+    public PostCacheController(PostService postService) {
+        this.postService = postService;
+    }
+
+    @Override
+    protected IRAService<PostResponseDTO, PostCreateDTO, Long> getService() {
+        return postService;
+    }
+
+    @Override
+    protected RecordCache<PostResponseDTO> getRecordCache() {
+        return recordCache;
+    }
+
+    @Override
+    protected boolean isConditionalRequests() {
+        return true;
+    }
+}
@@ -1,7 +1,9 @@
 package dev.femrek.reactadmindataprovider.unit;
 
+import dev.femrek.reactadmindataprovider.cache.SingleFlight;
 import dev.femrek.reactadmindataprovider.controller.RAController;
 import dev.femrek.reactadmindataprovider.service.IRAService;
+import dev.femrek.reactadmindataprovider.sort.SortableFields;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.http.ResponseEntity;
@@ -21,6 +23,12 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 class PostController extends RAController<PostResponseDTO, PostCreateDTO, Long> {
     private static final Log log = LogFactory.getLog(PostController.class);
+    private static final SortableFields SORTABLE_FIELDS = SortableFields.of(Post.class)
+            .field("id")
+            .field("title", "id")
+            .field("status", "id")
+            .field("userId", "id");
+    private final SingleFlight singleFlight = SingleFlight.create();
     private final PostService postService;
 
     public PostController(PostService postService) {
@@ -32,6 +40,21 @@ class PostController extends RAController<PostResponseDTO, PostCreateDTO, Long>
         return postService;
     }
 
+    @Override
+    protected SortableFields getSortableFields() {
+        return SORTABLE_FIELDS;
+    }
+
+    @Override
+    protected boolean isConditionalRequests() {
+        return true;
+    }
+
+    @Override
+    protected SingleFlight getSingleFlight() {
+        return singleFlight;
+    }
+
     @Override
     public ResponseEntity<List<PostResponseDTO>> getList(int _start, int _end, String _sort, String _order, String _embed, Map<String, String> allParams) {
         log.info("Received getList request with params: " + allParams);
@@ -0,0 +1,38 @@
+package dev.femrek.reactadmindataprovider.unit;
+
+import dev.femrek.reactadmindataprovider.controller.RAController;
+import dev.femrek.reactadmindataprovider.count.CountStrategy;
+import dev.femrek.reactadmindataprovider.service.IRAService;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+/**
+ * REST controller exposing posts with a capped and cached total.
+ * Counts at most five posts per filter set and serves the totals from a cache until a write through the controller.
+ */
+@RestController
+@RequestMapping("/api/post-counts")
+@CrossOrigin(origins = "*")
+class PostCountController extends RAController<PostResponseDTO, PostCreateDTO, Long> {
+    private final CountStrategy countStrategy =
+            CountStrategy.cached(CountStrategy.capped(5), Duration.ofMinutes(5), 100);
+
+    private final PostService postService;
+
+    public PostCountController(PostService postService) {
+        this.postService = postService;
+    }
+
+    @Override
+    protected IRAService<PostResponseDTO, PostCreateDTO, Long> getService() {
+        return postService;
+    }
+
+    @Override
+    protected CountStrategy getCountStrategy() {
+        return countStrategy;
+    }
+}
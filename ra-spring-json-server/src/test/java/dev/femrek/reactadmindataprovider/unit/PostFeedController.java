@@ -0,0 +1,59 @@
+package dev.femrek.reactadmindataprovider.unit;
+
+import dev.femrek.reactadmindataprovider.cache.ResponseCache;
+import dev.femrek.reactadmindataprovider.controller.RAController;
+import dev.femrek.reactadmindataprovider.pagination.DeepOffsetPaging;
+import dev.femrek.reactadmindataprovider.pagination.WindowLimits;
+import dev.femrek.reactadmindataprovider.service.IRAService;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+/**
+ * REST controller exposing posts as an append-only feed.
+ * Uses partial pagination, so list responses carry X-Has-Next-Page instead of X-Total-Count, serves at most five
+ * posts per window, seeks windows starting from the third post on, and caches the serialized windows.
+ */
+@RestController
+@RequestMapping("/api/post-feed")
+@CrossOrigin(origins = "*")
+class PostFeedController extends RAController<PostResponseDTO, PostCreateDTO, Long> {
+    private static final WindowLimits WINDOW_LIMITS = WindowLimits.maxWindowSize(5);
+
+    private final DeepOffsetPaging deepOffsetPaging = DeepOffsetPaging.above(3, 2, 100, Duration.ofMinutes(5));
+
+    private final ResponseCache responseCache = ResponseCache.of(100, 1 << 20, Duration.ofMinutes(5));
+
+    private final PostService postService;
+
+    public PostFeedController(PostService postService) {
+        this.postService = postService;
+    }
+
+    @Override
+    protected IRAService<PostResponseDTO, PostCreateDTO, Long> getService() {
+        return postService;
+    }
+
+    @Override
+    protected boolean isPartialPagination() {
+        return true;
+    }
+
+    @Override
+    protected WindowLimits getWindowLimits() {
+        return WINDOW_LIMITS;
+    }
+
+    @Override
+    protected DeepOffsetPaging getDeepOffsetPaging() {
+        return deepOffsetPaging;
+    }
+
+    @Override
+    protected ResponseCache getResponseCache() {
+        return responseCache;
+    }
+}
@@ -2,7 +2,9 @@ package dev.femrek.reactadmindataprovider.unit;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 @SpringBootApplication
 @EnableJpaRepositories(basePackages = "dev.femrek.reactadmindataprovider.unit")
@@ -10,5 +12,18 @@ class TestApplication {
     public static void main(String[] args) {
         SpringApplication.run(TestApplication.class, args);
     }
+
+    /**
+     * Runs the count queries of {@link UserService}, on at most two connections besides the request threads.
+     */
+    @Bean
+    ThreadPoolTaskExecutor countExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("ra-count-");
+        return executor;
+    }
 }
 
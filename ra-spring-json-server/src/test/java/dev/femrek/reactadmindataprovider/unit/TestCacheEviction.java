@@ -0,0 +1,68 @@
+package dev.femrek.reactadmindataprovider.unit;
+
+import dev.femrek.reactadmindataprovider.cache.RecordCache;
+import dev.femrek.reactadmindataprovider.cache.ResponseCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the eviction of the record and response caches, which must sample every region of the cache rather than
+ * the first entries in hash order.
+ * <p>
+ * The original keys fill the first buckets of the hash table, and every later key lands in the first bucket: sampling
+ * the first entries in hash order would only ever evict the later keys and the first original.
+ */
+class TestCacheEviction {
+    private static final int CAPACITY = 64;
+    private static final int INSERTS = 2_000;
+    private static final int SAME_BUCKET = 1 << 10;
+
+    @Test
+    @DisplayName("RecordCache evicts entries from every region of the cache, within its bound")
+    void testRecordCacheEviction() {
+        RecordCache<String> cache = RecordCache.of(CAPACITY, Duration.ofHours(1));
+        for (long id = 0; id < CAPACITY; id++) {
+            cache.put(id, "Original " + id, cache.stamp());
+        }
+        for (long i = 1; i <= INSERTS; i++) {
+            cache.put(i * SAME_BUCKET, "Later " + i, cache.stamp());
+            assertTrue(cache.size() <= CAPACITY);
+        }
+
+        int survivors = 0;
+        for (long id = 0; id < CAPACITY; id++) {
+            if (cache.get(id) != null) {
+                survivors++;
+            }
+        }
+        assertTrue(survivors < CAPACITY / 8, "Originals surviving eviction: " + survivors);
+    }
+
+    @Test
+    @DisplayName("ResponseCache evicts responses from every region of the cache, within its bound")
+    void testResponseCacheEviction() {
+        ResponseCache cache = ResponseCache.of(CAPACITY, 1L << 20, Duration.ofHours(1));
+        byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+        for (int key = 0; key < CAPACITY; key++) {
+            cache.put(key, new HttpHeaders(), body, cache.stamp());
+        }
+        for (int i = 1; i <= INSERTS; i++) {
+            cache.put(i * SAME_BUCKET, new HttpHeaders(), body, cache.stamp());
+            assertTrue(cache.size() <= CAPACITY);
+        }
+
+        int survivors = 0;
+        for (int key = 0; key < CAPACITY; key++) {
+            if (cache.get(key) != null) {
+                survivors++;
+            }
+        }
+        assertTrue(survivors < CAPACITY / 8, "Originals surviving eviction: " + survivors);
+    }
+}
@@ -0,0 +1,96 @@
+package dev.femrek.reactadmindataprovider.unit;
+
+import dev.femrek.reactadmindataprovider.count.CountStrategy;
+import dev.femrek.reactadmindataprovider.count.TotalCount;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the count strategies computing <code>X-Total-Count</code>, with counters standing in for the database.
+ */
+class TestCountStrategies {
+    @Test
+    @DisplayName("Capped strategy asks for one row more than the cap and reports a lower bound beyond it")
+    void testCapped() {
+        List<Long> limits = new ArrayList<>();
+        CountStrategy strategy = CountStrategy.capped(10);
+
+        TotalCount beyond = strategy.count(Map.of(), limit -> {
+            limits.add(limit);
+            return Math.min(1_000, limit);
+        });
+        assertEquals(List.of(11L), limits);
+        assertTrue(beyond.isLowerBound());
+        assertEquals("10+", beyond.toHeaderValue());
+        assertEquals(TotalCount.CAPPED, beyond.getStrategy());
+
+        TotalCount below = strategy.count(Map.of(), limit -> Math.min(7, limit));
+        assertTrue(below.isExact());
+        assertEquals("7", below.toHeaderValue());
+
+        assertThrows(IllegalArgumentException.class, () -> CountStrategy.capped(-1));
+    }
+
+    @Test
+    @DisplayName("Estimated strategy reports the estimator and never counts")
+    void testEstimated() {
+        CountStrategy strategy = CountStrategy.estimated(filters -> filters.containsKey("status") ? 40 : -5);
+
+        TotalCount filtered = strategy.count(Map.of("status", "draft"), limit -> fail("The estimate must not count"));
+        assertEquals("40", filtered.toHeaderValue());
+        assertEquals(TotalCount.ESTIMATED, filtered.getStrategy());
+
+        assertEquals(0, strategy.count(Map.of(), limit -> fail("The estimate must not count")).getValue());
+    }
+
+    @Test
+    @DisplayName("Cached strategy counts once per filter set until cleared")
+    void testCached() {
+        int[] counts = new int[1];
+        CountStrategy.Counter counter = limit -> ++counts[0] * 100L;
+        CountStrategy strategy = CountStrategy.cached(CountStrategy.exact(), Duration.ofMinutes(5), 10);
+
+        TotalCount miss = strategy.count(Map.of("status", "draft"), counter);
+        assertEquals(TotalCount.EXACT, miss.getStrategy());
+        assertEquals(100, miss.getValue());
+
+        TotalCount hit = strategy.count(Map.of("status", "draft"), counter);
+        assertEquals(TotalCount.CACHED, hit.getStrategy());
+        assertEquals(100, hit.getValue());
+        assertEquals(1, counts[0]);
+
+        assertEquals(200, strategy.count(Map.of("status", "published"), counter).getValue());
+        assertEquals(2, counts[0]);
+
+        strategy.clear();
+        TotalCount recounted = strategy.count(Map.of("status", "draft"), counter);
+        assertEquals(TotalCount.EXACT, recounted.getStrategy());
+        assertEquals(300, recounted.getValue());
+    }
+
+    @Test
+    @DisplayName("Cached strategy does not keep a total counted while it was cleared")
+    void testCachedClearedDuringCount() {
+        int[] counts = new int[1];
+        CountStrategy strategy = CountStrategy.cached(CountStrategy.exact(), Duration.ofMinutes(5), 10);
+
+        // A write clears the cache while the first total is counted
+        TotalCount stale = strategy.count(Map.of("status", "draft"), limit -> {
+            strategy.clear();
+            return ++counts[0] * 100L;
+        });
+        assertEquals(100, stale.getValue());
+
+        TotalCount recounted = strategy.count(Map.of("status", "draft"), limit -> ++counts[0] * 100L);
+        assertEquals(TotalCount.EXACT, recounted.getStrategy());
+        assertEquals(200, recounted.getValue());
+        assertEquals(2, counts[0]);
+    }
+}
@@ -624,5 +624,31 @@ class TestPostControllerManyReference {
             assertEquals(initialCount - 1, newCount);
         }
     }
-}
 
+    @Test
+    @Order(14)
+    @DisplayName("Update post with a value that cannot be coerced to the field type returns 400")
+    void testUpdatePostWithInvalidValue() throws IOException {
+        Map<String, Object> update = new HashMap<>();
+        update.put("title", "Must not be saved");
+        update.put("userId", "not-a-number");
+
+        RequestBody body = RequestBody.create(objectMapper.writeValueAsString(update), JSON);
+        Request updateRequest = new Request.Builder()
+                .url(baseUrl() + "/posts/" + postId2User1)
+                .put(body)
+                .build();
+
+        try (Response response = client.newCall(updateRequest).execute()) {
+            assertEquals(400, response.code());
+        }
+
+        try (Response response = client.newCall(new Request.Builder().url(baseUrl() + "/posts/" + postId2User1).get().build()).execute()) {
+            assertEquals(200, response.code());
+            assertNotNull(response.body());
+            Map<?, ?> post = objectMapper.readValue(response.body().string(), Map.class);
+            assertNotEquals("Must not be saved", post.get("title"));
+            assertEquals(userId1.longValue(), ((Number) post.get("userId")).longValue());
+        }
+    }
+}
@@ -0,0 +1,971 @@
+package dev.femrek.reactadmindataprovider.unit;
+
+import dev.femrek.reactadmindataprovider.cache.SingleFlight;
+import dev.femrek.reactadmindataprovider.jpa.DtoProjection;
+import dev.femrek.reactadmindataprovider.jpa.ProjectionQuery;
+import dev.femrek.reactadmindataprovider.service.IRAService;
+import dev.femrek.reactadmindataprovider.service.ReadOnlyTransactionAdvisor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.EntityStatistics;
+import org.junit.jupiter.api.*;
+import org.springframework.aop.MethodMatcher;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the pagination modes of getList.
+ * All requests are restricted to the posts of a dedicated user, so data created by other test classes does not
+ * affect the results.
+ */
+@SpringBootTest(classes = TestApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(locations = "classpath:application-test.properties")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class TestPostControllerPagination {
+    private static final int POST_COUNT = 7;
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+    @LocalServerPort
+    private int port;
+
+    private final OkHttpClient client = new OkHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static Long userId;
+
+    private HttpUrl postsUrl() {
+        HttpUrl result = HttpUrl.parse("http://localhost:" + port + "/api/posts");
+        assertNotNull(result);
+        return result;
+    }
+
+    private HttpUrl postFeedUrl() {
+        HttpUrl result = HttpUrl.parse("http://localhost:" + port + "/api/post-feed");
+        assertNotNull(result);
+        return result;
+    }
+
+    @BeforeAll
+    static void setupTestData(@Autowired UserRepository userRepository, @Autowired PostRepository postRepository) {
+        User user = userRepository.save(new User("Pagination Author", "pagination.author@example.com", "author"));
+        userId = user.getId();
+
+        for (int i = 1; i <= POST_COUNT; i++) {
+            postRepository.save(new Post("Paged post " + i, "Content " + i, userId, i % 2 == 0 ? "draft" : "published"));
+        }
+    }
+
+    private List<Map<String, Object>> readList(Response response) throws IOException {
+        assertNotNull(response.body());
+        return objectMapper.readValue(
+                response.body().string(),
+                objectMapper.getTypeFactory().constructCollectionType(List.class, Map.class)
+        );
+    }
+
+    // ==================== KEYSET PAGINATION Tests ====================
+
+    @Test
+    @Order(1)
+    @DisplayName("GET /api/posts?_after= - Walk all posts of a user with keyset cursors")
+    void testKeysetPaginationWalksAllRows() throws IOException {
+        List<Long> seenIds = new ArrayList<>();
+        String cursor = "";
+        int windows = 0;
+
+        while (cursor != null) {
+            HttpUrl url = postsUrl().newBuilder()
+                    .addQueryParameter("_start", "0")
+                    .addQueryParameter("_end", "3")
+                    .addQueryParameter("_sort", "title")
+                    .addQueryParameter("_order", "DESC")
+                    .addQueryParameter("_after", cursor)
+                    .addQueryParameter("userId", userId.toString())
+                    .build();
+
+            try (Response response = client.newCall(new Request.Builder().url(url).get().build()).execute()) {
+                assertEquals(200, response.code());
+                assertNull(response.header("X-Total-Count"));
+
+                List<Map<String, Object>> posts = readList(response);
+                assertTrue(posts.size() <= 3);
+                for (Map<String, Object> post : posts) {
+                    seenIds.add(((Number) post.get("id")).longValue());
+                }
+                cursor = response.header("X-Next-Cursor");
+            }
+            windows++;
+            assertTrue(windows <= POST_COUNT, "Keyset pagination did not terminate");
+        }
+
+        assertEquals(3, windows);
+        assertEquals(POST_COUNT, seenIds.size());
+        assertEquals(POST_COUNT, seenIds.stream().distinct().count());
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("GET /api/posts?_after=invalid - Malformed cursor returns bad request")
+    void testKeysetPaginationWithInvalidCursor() throws IOException {
+        HttpUrl url = postsUrl().newBuilder()
+                .addQueryParameter("_start", "0")
+                .addQueryParameter("_end", "3")
+                .addQueryParameter("_after", "not-a-cursor")
+                .build();
+
+        try (Response response = client.newCall(new Request.Builder().url(url).get().build()).execute()) {
+            assertEquals(400, response.code());
+        }
+    }
+
+    // ==================== OFFSET PAGINATION Tests ====================
+
+    @Test
+    @Order(3)
+    @DisplayName("GET /api/posts?_start=2&_end=5 - Window not aligned to its size returns the exact rows")
+    void testUnalignedOffsetWindow() throws IOException {
+        HttpUrl allUrl = postsUrl().newBuilder()
+                .addQueryParameter("_start", "0")
+                .addQueryParameter("_end", "100")
+                .addQueryParameter("_sort", "id")
+                .addQueryParameter("_order", "ASC")
+                .addQueryParameter("userId", userId.toString())
+                .build();
+        List<Map<String, Object>> allPosts;
+        try (Response response = client.newCall(new Request.Builder().url(allUrl).get().build()).execute()) {
+            assertEquals(200, response.code());
+            allPosts = readList(response);
+        }
+        assertEquals(POST_COUNT, allPosts.size());
+
+        HttpUrl windowUrl = postsUrl().newBuilder()
+                .addQueryParameter("_start", "2")
+                .addQueryParameter("_end", "5")
+                .addQueryParameter("_sort", "id")
+                .addQueryParameter("_order", "ASC")
+                .addQueryParameter("userId", userId.toString())
+                .build();
+        try (Response response = client.newCall(new Request.Builder().url(windowUrl).get().build()).execute()) {
+            assertEquals(200, response.code());
+            assertEquals(String.valueOf(POST_COUNT), response.header("X-Total-Count"));
+            assertEquals("exact", response.header("X-Total-Count-Strategy"));
+
+            List<Map<String, Object>> window = readList(response);
+            assertEquals(3, window.size());
+            for (int i = 0; i < window.size(); i++) {
+                assertEquals(allPosts.get(i + 2).get("id"), window.get(i).get("id"));
+            }
+        }
+    }
+
+    // ==================== PARTIAL PAGINATION Tests ====================
+
+    @Test
+    @Order(4)
+    @DisplayName("GET /api/post-feed - Partial pagination reports X-Has-Next-Page instead of X-Total-Count")
+    void testPartialPagination() throws IOException {
+        HttpUrl firstUrl = postFeedUrl().newBuilder()
+                .addQueryParameter("_start", "0")
+                .addQueryParameter("_end", "5")
+                .addQueryParameter("userId", userId.toString())
+                .build();
+        try (Response response = client.newCall(new Request.Builder().url(firstUrl).get().build()).execute()) {
+            assertEquals(200, response.code());
+            assertNull(response.header("X-Total-Count"));
+            assertEquals("true", response.header("X-Has-Next-Page"));
+            assertEquals(5, readList(response).size());
+        }
+
+        HttpUrl lastUrl = postFeedUrl().newBuilder()
+                .addQueryParameter("_start", "5")
+                .addQueryParameter("_end", "10")
+                .addQueryParameter("userId", userId.toString())
+                .build();
+        try (Response response = client.newCall(new Request.Builder().url(lastUrl).get().build()).execute()) {
+            assertEquals(200, response.code());
+            assertNull(response.header("X-Total-Count"));
+            assertEquals("false", response.header("X-Has-Next-Page"));
+            assertEquals(POST_COUNT - 5, readList(response).size());
+        }
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("GET /api/post-feed?_start=0&_end=100 - Window over the limit is clamped, getMany over it is rejected")
+    void testWindowLimitClampsLargeWindow() throws IOException {
+        HttpUrl url = postFeedUrl().newBuilder()
+                .addQueryParameter("_start", "0")
+                .addQueryParameter("_end", "100")
+                .addQueryParameter("userId", userId.toString())
+                .build();
+        List<Map<String, Object>> posts;
+        try (Response response = client.newCall(new Request.Builder().url(url).get().build()).execute()) {
+            assertEquals(200, response.code());
+            assertEquals("5", response.header("X-Window-Limit"));
+            assertEquals("true", response.header("X-Has-Next-Page"));
+            posts = readList(response);
+            assertEquals(5, posts.size());
+        }
+
+        // Repeated ids count once against the limit
+        HttpUrl.Builder manyUrl = postFeedUrl().newBuilder().addPathSegment("many");
+        posts.forEach(post -> manyUrl.addQueryParameter("id", String.valueOf(post.get("id"))));
+        manyUrl.addQueryParameter("id", String.valueOf(posts.get(0).get("id")));
+        try (Response response = client.newCall(new Request.Builder().url(manyUrl.build()).get().build()).execute()) {
+            assertEquals(200, response.code());
+            assertEquals(5, readList(response).size());
+        }
+
+        manyUrl.addQueryParameter("id", "99999");
+        try (Response response = client.newCall(new Request.Builder().url(manyUrl.build()).get().build()).execute()) {
+            assertEquals(400, response.code());
+        }
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("GET /api/post-feed?_start=5 - Deep window seeked from a recorded boundary matches the offset window")
+    void testDeepOffsetSeekMatchesOffsetWindow(@Autowired PostService postService) throws IOException {
+        HttpUrl offsetUrl = postsUrl().newBuilder()
+                .addQueryParameter("_start", "5")
+                .addQueryParameter("_end", "7")
+                .addQueryParameter("_sort", "title")
+                .addQueryParameter("_order", "DESC")
+                .addQueryParameter("userId", userId.toString())
+                .build();
+        List<Map<String, Object>> expected;
+        try (Response response = client.newCall(new Request.Builder().url(offsetUrl).get().build()).execute()) {
+            assertEquals(200, response.code());
+            expected = readList(response);
+        }
+
+        // The first window records the boundaries after the 2nd and 4th posts
+        int seeks = postService.getSeekCount();
+        for (String start : List.of("0", "5")) {
+            HttpUrl url = postFeedUrl().newBuilder()
+                    .addQueryParameter("_start", start)
+                    .addQueryParameter("_end", String.valueOf(Integer.parseInt(start) + 5))
+                    .addQueryParameter("_sort", "title")
+                    .addQueryParameter("_order", "DESC")
+                    .addQueryParameter("userId", userId.toString())
+                    .build();
+            try (Response response = client.newCall(new Request.Builder().url(url).get().build()).execute()) {
+                assertEquals(200, response.code());
+                List<Map<String, Object>> posts = readList(response);
+                if (start.equals("5")) {
+                    assertEquals("false", response.header("X-Has-Next-Page"));
+                    assertEquals(expected.size(), posts.size());
+                    for (int i = 0; i < posts.size(); i++) {
+                        assertEquals(expected.get(i).get("id"), posts.get(i).get("id"));
+                    }
+                }
+            }
+        }
+        assertEquals(seeks + 1, postService.getSeekCount());
+
+        // A write through the controller forgets the boundaries, so the deep window is served by offset
+        RequestBody body = RequestBody.create(
+                objectMapper.writeValueAsString(Map.of("content", expected.get(0).get("content"))), JSON);
+        HttpUrl postUrl = postFeedUrl().newBuilder().addPathSegment(String.valueOf(expected.get(0).get("id"))).build();
+        try (Response response = client.newCall(new Request.Builder().url(postUrl).put(body).build()).execute()) {
+            assertEquals(200, response.code());
+        }
+        HttpUrl deepUrl = postFeedUrl().newBuilder()
+                .addQueryParameter("_start", "5")
+                .addQueryParameter("_end", "10")
+                .addQueryParameter("_sort", "title")
+                .addQueryParameter("_order", "DESC")
+                .addQueryParameter("userId", userId.toString())
+                .build();
+        try (Response response = client.newCall(new Request.Builder().url(deepUrl).get().build()).execute()) {
+            assertEquals(200, response.code());
+            assertEquals(expected.size(), readList(response).size());
+        }
+        assertEquals(seeks + 1, postService.getSeekCount());
+    }
+
+    // ==================== SPARSE FIELDSET Tests ====================
+
+    @Test
+    @Order(7)
+    @DisplayName("GET /api/posts?_fields=title - Only the requested fields and the id are returned")
+    void testSparseFieldset() throws IOException {
+        HttpUrl url = postsUrl().newBuilder()
+                .addQueryParameter("_start", "0")
+                .addQueryParameter("_end", "3")
+                .addQueryParameter("_sort", "id")
+                .addQueryParameter("_order", "ASC")
+                .addQueryParameter("_fields", "title")
+                .addQueryParameter("userId", userId.toString())
+                .build();
+
+        try (Response response = client.newCall(new Request.Builder().url(url).get().build()).execute()) {
+            assertEquals(200, response.code());
+            assertEquals(String.valueOf(POST_COUNT), response.header("X-Total-Count"));
+
+            List<Map<String, Object>> posts = readList(response);
+            assertEquals(3, posts.size());
+            for (Map<String, Object> post : posts) {
+                assertNotNull(post.get("id"));
+                assertTrue(((String) post.get("title")).startsWith("Paged post "));
+                assertNull(post.get("content"));
+                assertNull(post.get("userId"));
+            }
+        }
+    }
+
+    @Test
+    @Order(8)
+    @DisplayName("GET /api/posts?_fields=unknown - Fieldset without any selectable field returns the ids only")
+    void testSparseFieldsetWithUnknownField() throws IOException {
+        HttpUrl url = postsUrl().newBuilder()
+                .addQueryParameter("_start", "0")
+                .addQueryParameter("_end", "3")
+                .addQueryParameter("_fields", "unknown")
+                .addQueryParameter("userId", userId.toString())
+                .build();
+
+        try (Response response = client.newCall(new Request.Builder().url(url).get().build()).execute()) {
+            assertEquals(200, response.code());
+
+            List<Map<String, Object>> posts = readList(response);
+            assertEquals(3, posts.size());
+            for (Map<String, Object> post : posts) {
+                assertNotNull(post.get("id"));
+                assertNull(post.get("title"));
+            }
+        }
+    }
+
+    // ==================== SORT Tests ====================
+
+    @Test
+    @Order(9)
+    @DisplayName("GET /api/posts?_sort=status,title&_order=ASC,DESC - Sorts by several fields")
+    void testMultiColumnSort() throws IOException {
+        HttpUrl url = postsUrl().newBuilder()
+                .addQueryParameter("_start", "0")
+                .addQueryParameter("_end", "100")
+                .addQueryParameter("_sort", "status,title")
+                .addQueryParameter("_order", "ASC,DESC")
+                .addQueryParameter("userId", userId.toString())
+                .build();
+
+        try (Response response = client.newCall(new Request.Builder().url(url).get().build()).execute()) {
+            assertEquals(200, response.code());
+
+            List<Map<String, Object>> posts = readList(response);
+            assertEquals(POST_COUNT, posts.size());
+            for (int i = 1; i < posts.size(); i++) {
+                String previousStatus = (String) posts.get(i - 1).get("status");
+                String status = (String) posts.get(i).get("status");
+                assertTrue(previousStatus.compareTo(status) <= 0);
+                if (previousStatus.equals(status)) {
+                    String previousTitle = (String) posts.get(i - 1).get("title");
+                    assertTrue(previousTitle.compareTo((String) posts.get(i).get("title")) > 0);
+                }
+            }
+        }
+    }
+
+    @Test
+    @Order(10)
+    @DisplayName("GET /api/posts?_sort=content - Sorting by a field outside the registry returns bad request")
+    void testSortByUnregisteredField() throws IOException {
+        HttpUrl url = postsUrl().newBuilder()
+                .addQueryParameter("_start", "0")
+                .addQueryParameter("_end", "10")
+                .addQueryParameter("_sort", "content")
+                .build();
+
+        try (Response response = client.newCall(new Request.Builder().url(url).get().build()).execute()) {
+            assertEquals(400, response.code());
+        }
+    }
+
+    @Test
+    @Order(11)
+    @DisplayName("GET /api/posts?_sort=status,title&_order=ASC,DESC,ASC - Mismatched directions return bad request")
+    void testSortWithMismatchedDirections() throws IOException {
+        HttpUrl url = postsUrl().newBuilder()
+                .addQueryParameter("_start", "0")
+                .addQueryParameter("_end", "10")
+                .addQueryParameter("_sort", "status,title")
+                .addQueryParameter("_order", "ASC,DESC,ASC")
+                .build();
+
+        try (Response response = client.newCall(new Request.Builder().url(url).get().build()).execute()) {
+            assertEquals(400, response.code());
+        }
+    }
+
+    // ==================== WINDOW COUNT Tests ====================
+
+    @Test
+    @Order(12)
+    @DisplayName("GET /api/posts/of/userId/{id} - Window count total, also past the last row")
+    void testWindowCountTotal() throws IOException {
+        for (String start : List.of("0", "100")) {
+            HttpUrl url = postsUrl().newBuilder()
+                    .addPathSegments("of/userId/" + userId)
+                    .addQueryParameter("_start", start)
+                    .addQueryParameter("_end", String.valueOf(Integer.parseInt(start) + 3))
+                    .build();
+            try (Response response = client.newCall(new Request.Builder().url(url).get().build()).execute()) {
+                assertEquals(200, response.code());
+                assertEquals(String.valueOf(POST_COUNT), response.header("X-Total-Count"));
+                assertEquals(start.equals("0") ? 3 : 0, readList(response).size());
+            }
+        }
+    }
+
+    // ==================== FILTER OPERATOR Tests ====================
+
+    @Test
+    @Order(13)
+    @DisplayName("GET /api/posts?status_ne=&title_like=&userId_gte=&userId_lte=&status_in= - Operator suffixes")
+    void testFilterOperators() throws IOException {
+        Map<Map<String, String>, Integer> expectedCounts = Map.of(
+                Map.of("userId", String.valueOf(userId), "status_ne", "draft"), 4,
+                Map.of("userId", String.valueOf(userId), "title_like", "POST 3"), 1,
+                Map.of("userId_gte", String.valueOf(userId), "userId_lte", String.valueOf(userId),
+                        "status_in", "draft,published"), POST_COUNT
+        );
+
+        for (Map.Entry<Map<String, String>, Integer> entry : expectedCounts.entrySet()) {
+            HttpUrl.Builder builder = postsUrl().newBuilder()
+                    .addQueryParameter("_start", "0")
+                    .addQueryParameter("_end", "10");
+            entry.getKey().forEach(builder::addQueryParameter);
+            try (Response response = client.newCall(new Request.Builder().url(builder.build()).get().build()).execute()) {
+                assertEquals(200, response.code(), entry.getKey().toString());
+                assertEquals(String.valueOf(entry.getValue()), response.header("X-Total-Count"), entry.getKey().toString());
+                assertEquals(entry.getValue().intValue(), readList(response).size());
+            }
+        }
+    }
+
+    @Test
+    @Order(14)
+    @DisplayName("GET /api/posts?userId_like= - Operators that do not apply to the field type are rejected")
+    void testFilterOperatorRejected() throws IOException {
+        for (String filter : List.of("userId_like", "unknown_gte")) {
+            HttpUrl url = postsUrl().newBuilder()
+                    .addQueryParameter("_start", "0")
+                    .addQueryParameter("_end", "10")
+                    .addQueryParameter(filter, "1")
+                    .build();
+            try (Response response = client.newCall(new Request.Builder().url(url).get().build()).execute()) {
+                assertEquals(400, response.code(), filter);
+            }
+        }
+    }
+
+    // ==================== PROJECTION Tests ====================
+
+    @Test
+    @Order(15)
+    @DisplayName("GET /api/posts, /api/posts/many and /api/posts/{id} - DTOs are projected from the columns")
+    void testProjectedReads(@Autowired EntityManagerFactory entityManagerFactory) throws IOException {
+        EntityStatistics postStatistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics()
+                .getEntityStatistics(Post.class.getName());
+        long loads = postStatistics.getLoadCount();
+
+        List<Map<String, Object>> posts;
+        HttpUrl listUrl = postsUrl().newBuilder()
+                .addQueryParameter("_start", "0")
+                .addQueryParameter("_end", "2")
+                .addQueryParameter("userId", String.valueOf(userId))
+                .build();
+        try (Response response = client.newCall(new Request.Builder().url(listUrl).get().build()).execute()) {
+            assertEquals(200, response.code());
+            posts = readList(response);
+        }
+        assertEquals(2, posts.size());
+
+        HttpUrl fieldsUrl = listUrl.newBuilder().addQueryParameter("_fields", "title").build();
+        try (Response response = client.newCall(new Request.Builder().url(fieldsUrl).get().build()).execute()) {
+            assertEquals(200, response.code());
+            List<Map<String, Object>> titles = readList(response);
+            assertEquals(posts.get(0).get("title"), titles.get(0).get("title"));
+            assertNull(titles.get(0).get("content"));
+        }
+
+        HttpUrl.Builder manyUrl = postsUrl().newBuilder().addPathSegment("many");
+        posts.forEach(post -> manyUrl.addQueryParameter("id", String.valueOf(post.get("id"))));
+        manyUrl.addQueryParameter("id", "99999");
+        try (Response response = client.newCall(new Request.Builder().url(manyUrl.build()).get().build()).execute()) {
+            assertEquals(200, response.code());
+            List<Map<String, Object>> many = readList(response);
+            assertEquals(2, many.size());
+            assertTrue(many.containsAll(posts));
+        }
+
+        Map<String, Object> first = posts.get(0);
+        try (Response response = client.newCall(new Request.Builder()
+                .url(postsUrl().newBuilder().addPathSegment(String.valueOf(first.get("id"))).build())
+                .get().build()).execute()) {
+            assertEquals(200, response.code());
+            assertNotNull(response.body());
+            assertEquals(first, objectMapper.readValue(response.body().string(), Map.class));
+        }
+        assertEquals(loads, postStatistics.getLoadCount(), "A projected read loaded Post entities");
+
+        // getManyReference reads entities, which the statistics see
+        HttpUrl referenceUrl = postsUrl().newBuilder()
+                .addPathSegments("of/userId/" + userId)
+                .addQueryParameter("_start", "0")
+                .addQueryParameter("_end", "2")
+                .build();
+        try (Response response = client.newCall(new Request.Builder().url(referenceUrl).get().build()).execute()) {
+            assertEquals(200, response.code());
+            assertEquals(2, readList(response).size());
+        }
+        assertTrue(postStatistics.getLoadCount() > loads);
+    }
+
+    // ==================== READ-ONLY TRANSACTION Tests ====================
+
+    @Test
+    @Order(16)
+    @DisplayName("Read methods of the services run within read-only transactions")
+    void testReadMethodsRunReadOnly(@Autowired ReadOnlyTransactionAdvisor advisor) throws NoSuchMethodException {
+        MethodMatcher matcher = advisor.getPointcut().getMethodMatcher();
+        assertTrue(matcher.matches(IRAService.class.getMethod("findById", Object.class), PostService.class));
+        assertTrue(matcher.matches(
+                IRAService.class.getMethod("findWithFilters", Map.class, Pageable.class), PostService.class));
+        assertFalse(matcher.matches(
+                IRAService.class.getMethod("updateMany", Iterable.class, Map.class), PostService.class));
+        assertFalse(matcher.matches(
+                IRAService.class.getMethod("deleteMany", Iterable.class), UserService.class));
+    }
+
+    @Test
+    @Order(17)
+    @DisplayName("Read methods of the services are invoked within a read-only transaction")
+    void testReadMethodsInvokedReadOnly(@Autowired ReadOnlyTransactionAdvisor advisor,
+                                        @Autowired PostRepository postRepository,
+                                        @Autowired EntityManager entityManager) {
+        AtomicBoolean readOnly = new AtomicBoolean();
+        AtomicBoolean inTransaction = new AtomicBoolean();
+        PostService target = new PostService(postRepository, entityManager) {
+            @Override
+            public PostResponseDTO findById(Long id) {
+                inTransaction.set(TransactionSynchronizationManager.isActualTransactionActive());
+                readOnly.set(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+                return super.findById(id);
+            }
+        };
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addAdvisor(advisor);
+        @SuppressWarnings("unchecked")
+        IRAService<PostResponseDTO, PostCreateDTO, Long> service =
+                (IRAService<PostResponseDTO, PostCreateDTO, Long>) proxyFactory.getProxy();
+
+        Long postId = postRepository.findAll().get(0).getId();
+        assertEquals(postId, service.findById(postId).getId());
+        assertTrue(inTransaction.get());
+        assertTrue(readOnly.get());
+        assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+    }
+
+    // ==================== CONDITIONAL REQUEST Tests ====================
+
+    @Test
+    @Order(18)
+    @DisplayName("GET /api/posts/{id} - If-None-Match with the current version returns 304 Not Modified")
+    void testGetOneNotModified() throws IOException {
+        HttpUrl listUrl = postsUrl().newBuilder()
+                .addQueryParameter("_start", "0")
+                .addQueryParameter("_end", "1")
+                .addQueryParameter("userId", String.valueOf(userId))
+                .build();
+        Object id;
+        try (Response response = client.newCall(new Request.Builder().url(listUrl).get().build()).execute()) {
+            assertEquals(200, response.code());
+            id = readList(response).get(0).get("id");
+        }
+        HttpUrl postUrl = postsUrl().newBuilder().addPathSegment(String.valueOf(id)).build();
+
+        String eTag;
+        try (Response response = client.newCall(new Request.Builder().url(postUrl).get().build()).execute()) {
+            assertEquals(200, response.code());
+            eTag = response.header("ETag");
+            assertNotNull(eTag);
+        }
+
+        try (Response response = client.newCall(new Request.Builder().url(postUrl)
+                .header("If-None-Match", eTag).get().build()).execute()) {
+            assertEquals(304, response.code());
+            assertEquals(eTag, response.header("ETag"));
+        }
+
+        RequestBody body = RequestBody.create(
+                objectMapper.writeValueAsString(Map.of("content", "Revised content")), JSON);
+        try (Response response = client.newCall(new Request.Builder().url(postUrl).put(body).build()).execute()) {
+            assertEquals(200, response.code());
+        }
+
+        try (Response response = client.newCall(new Request.Builder().url(postUrl)
+                .header("If-None-Match", eTag).get().build()).execute()) {
+            assertEquals(200, response.code());
+            assertNotEquals(eTag, response.header("ETag"));
+            assertNotNull(response.body());
+            assertEquals("Revised content",
+                    objectMapper.readValue(response.body().string(), Map.class).get("content"));
+        }
+    }
+
+    @Test
+    @Order(19)
+    @DisplayName("GET /api/post-cache/{id} - A cached post older than the version of its entity tag is loaded again")
+    void testGetOneCachedAtVersion(@Autowired PostRepository postRepository) throws IOException {
+        Post post = postRepository.findAll().get(0);
+        HttpUrl postUrl = HttpUrl.parse("http://localhost:" + port + "/api/post-cache/" + post.getId());
+        assertNotNull(postUrl);
+
+        String eTag;
+        try (Response response = client.newCall(new Request.Builder().url(postUrl).get().build()).execute()) {
+            assertEquals(200, response.code());
+            eTag = response.header("ETag");
+            assertNotNull(eTag);
+        }
+
+        // A write bypassing the controller changes the version, so the cached post is not served with its entity tag
+        post.setContent("Content changed behind the record cache");
+        postRepository.save(post);
+        String newETag;
+        try (Response response = client.newCall(new Request.Builder().url(postUrl)
+                .header("If-None-Match", eTag).get().build()).execute()) {
+            assertEquals(200, response.code());
+            newETag = response.header("ETag");
+            assertNotEquals(eTag, newETag);
+            assertNotNull(response.body());
+            assertEquals("Content changed behind the record cache",
+                    objectMapper.readValue(response.body().string(), Map.class).get("content"));
+        }
+
+        try (Response response = client.newCall(new Request.Builder().url(postUrl)
+                .header("If-None-Match", newETag).get().build()).execute()) {
+            assertEquals(304, response.code());
+        }
+    }
+
+    @Test
+    @Order(20)
+    @DisplayName("GET /api/posts - If-None-Match with the hash of the unchanged window returns 304 Not Modified")
+    void testGetListNotModified() throws IOException {
+        HttpUrl url = postsUrl().newBuilder()
+                .addQueryParameter("_start", "0")
+                .addQueryParameter("_end", "3")
+                .addQueryParameter("userId", String.valueOf(userId))
+                .build();
+
+        String eTag;
+        try (Response response = client.newCall(new Request.Builder().url(url).get().build()).execute()) {
+            assertEquals(200, response.code());
+            eTag = response.header("ETag");
+            assertNotNull(eTag);
+        }
+
+        try (Response response = client.newCall(new Request.Builder().url(url)
+                .header("If-None-Match", eTag).get().build()).execute()) {
+            assertEquals(304, response.code());
+            assertNotNull(response.body());
+            assertEquals("", response.body().string());
+        }
+
+        HttpUrl otherWindow = url.newBuilder().setQueryParameter("_end", "2").build();
+        try (Response response = client.newCall(new Request.Builder().url(otherWindow)
+                .header("If-None-Match", eTag).get().build()).execute()) {
+            assertEquals(200, response.code());
+            assertEquals(2, readList(response).size());
+        }
+    }
+
+    // ==================== RESPONSE CACHE Tests ====================
+
+    @Test
+    @Order(21)
+    @DisplayName("GET /api/post-feed - Repeated windows are served from the response cache until a write")
+    void testResponseCache(@Autowired PostRepository postRepository) throws IOException {
+        HttpUrl url = postFeedUrl().newBuilder()
+                .addQueryParameter("_start", "0")
+                .addQueryParameter("_end", "2")
+                .addQueryParameter("userId", String.valueOf(userId))
+                .build();
+        List<Map<String, Object>> window;
+        try (Response response = client.newCall(new Request.Builder().url(url).get().build()).execute()) {
+            assertEquals(200, response.code());
+            assertEquals("true", response.header("X-Has-Next-Page"));
+            window = readList(response);
+        }
+        assertEquals(2, window.size());
+        Long firstId = ((Number) window.get(0).get("id")).longValue();
+
+        // A write bypassing the controller is not seen while the window is cached
+        Post post = postRepository.findById(firstId).orElseThrow();
+        post.setContent("Content changed behind the cache");
+        postRepository.save(post);
+        try (Response response = client.newCall(new Request.Builder().url(url).get().build()).execute()) {
+            assertEquals(200, response.code());
+            assertTrue(String.valueOf(response.header("Content-Type")).startsWith("application/json"));
+            assertEquals("true", response.header("X-Has-Next-Page"));
+            assertEquals(window, readList(response));
+        }
+
+        // A write through the controller clears the cache
+        RequestBody body = RequestBody.create(
+                objectMapper.writeValueAsString(Map.of("status", post.getStatus())), JSON);
+        HttpUrl postUrl = postFeedUrl().newBuilder().addPathSegment(String.valueOf(firstId)).build();
+        try (Response response = client.newCall(new Request.Builder().url(postUrl).put(body).build()).execute()) {
+            assertEquals(200, response.code());
+        }
+        try (Response response = client.newCall(new Request.Builder().url(url).get().build()).execute()) {
+            assertEquals(200, response.code());
+            assertEquals("Content changed behind the cache", readList(response).get(0).get("content"));
+        }
+
+        // Windows clamped to the same size share an entry, and only the clamped one reports the limit
+        HttpUrl fullUrl = url.newBuilder().setQueryParameter("_end", "5").build();
+        HttpUrl clampedUrl = url.newBuilder().setQueryParameter("_end", "100").build();
+        try (Response response = client.newCall(new Request.Builder().url(fullUrl).get().build()).execute()) {
+            assertEquals(200, response.code());
+            assertNull(response.header("X-Window-Limit"));
+            window = readList(response);
+        }
+        post = postRepository.findById(firstId).orElseThrow();
+        post.setContent("Content changed behind the shared entry");
+        postRepository.save(post);
+        try (Response response = client.newCall(new Request.Builder().url(clampedUrl).get().build()).execute()) {
+            assertEquals(200, response.code());
+            assertEquals("5", response.header("X-Window-Limit"));
+            assertEquals(window, readList(response));
+        }
+    }
+
+    // ==================== REQUEST COALESCING Tests ====================
+
+    @Test
+    @Order(22)
+    @DisplayName("GET /api/posts - Concurrent identical getList requests share a single read in flight")
+    void testSingleFlightCoalescesConcurrentRequests(@Autowired PostService postService,
+                                                     @Autowired PostController postController) throws Exception {
+        int duplicates = 3;
+        HttpUrl url = postsUrl().newBuilder()
+                .addQueryParameter("_start", "0")
+                .addQueryParameter("_end", "4")
+                .addQueryParameter("_sort", "title")
+                .addQueryParameter("_order", "ASC")
+                .addQueryParameter("userId", userId.toString())
+                .build();
+        Request request = new Request.Builder().url(url).get().build();
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        int reads = postService.getListReadCount();
+        postService.setBeforeListRead(() -> {
+            reading.countDown();
+            try {
+                assertTrue(release.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(duplicates + 1);
+        try {
+            List<Future<String>> bodies = new ArrayList<>();
+            bodies.add(executor.submit(() -> getBody(request)));
+            assertTrue(reading.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < duplicates; i++) {
+                bodies.add(executor.submit(() -> getBody(request)));
+            }
+            // The read in flight is held until every duplicate request waits for it
+            awaitWaitingCalls(postController.getSingleFlight(), duplicates);
+            release.countDown();
+
+            String first = bodies.get(0).get(5, TimeUnit.SECONDS);
+            assertEquals(4, objectMapper.readValue(first, List.class).size());
+            for (Future<String> body : bodies) {
+                assertEquals(first, body.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            postService.setBeforeListRead(() -> {
+            });
+            release.countDown();
+            executor.shutdownNow();
+        }
+        assertEquals(reads + 1, postService.getListReadCount());
+    }
+
+    private String getBody(Request request) throws IOException {
+        try (Response response = client.newCall(request).execute()) {
+            assertEquals(200, response.code());
+            assertNotNull(response.body());
+            return response.body().string();
+        }
+    }
+
+    /**
+     * Waits until the given number of calls wait for a call in flight of the single-flight instance.
+     */
+    private static void awaitWaitingCalls(SingleFlight singleFlight, int count) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.waiting() < count) {
+            assertTrue(System.nanoTime() < deadline, "The duplicate requests did not join the call in flight");
+            Thread.yield();
+        }
+    }
+
+    // ==================== COUNT STRATEGY Tests ====================
+
+    @Test
+    @Order(23)
+    @DisplayName("GET /api/post-counts - Capped totals stop counting and cached totals are cleared by writes")
+    void testCappedCachedCount(@Autowired PostService postService) throws IOException {
+        Map<String, String> filters = Map.of("userId", String.valueOf(userId));
+        assertEquals(3, postService.countWithFilters(filters, 3));
+        assertEquals(POST_COUNT, postService.countWithFilters(filters, 100));
+        assertEquals(POST_COUNT, postService.countWithFilters(filters, Long.MAX_VALUE));
+
+        HttpUrl url = HttpUrl.parse("http://localhost:" + port + "/api/post-counts").newBuilder()
+                .addQueryParameter("_start", "0")
+                .addQueryParameter("_end", "2")
+                .addQueryParameter("userId", String.valueOf(userId))
+                .build();
+        Object firstId;
+        try (Response response = client.newCall(new Request.Builder().url(url).get().build()).execute()) {
+            assertEquals(200, response.code());
+            assertEquals("5+", response.header("X-Total-Count"));
+            assertEquals("capped", response.header("X-Total-Count-Strategy"));
+            firstId = readList(response).get(0).get("id");
+        }
+        try (Response response = client.newCall(new Request.Builder().url(url).get().build()).execute()) {
+            assertEquals(200, response.code());
+            assertEquals("5+", response.header("X-Total-Count"));
+            assertEquals("cached", response.header("X-Total-Count-Strategy"));
+        }
+
+        RequestBody body = RequestBody.create(objectMapper.writeValueAsString(Map.of("content", "Counted")), JSON);
+        HttpUrl postUrl = HttpUrl.parse("http://localhost:" + port + "/api/post-counts/" + firstId);
+        try (Response response = client.newCall(new Request.Builder().url(postUrl).put(body).build()).execute()) {
+            assertEquals(200, response.code());
+        }
+        try (Response response = client.newCall(new Request.Builder().url(url).get().build()).execute()) {
+            assertEquals(200, response.code());
+            assertEquals("capped", response.header("X-Total-Count-Strategy"));
+        }
+    }
+
+    // ==================== PROJECTION THROUGH ASSOCIATIONS Tests ====================
+
+    /**
+     * A post read with the name of its category, if any.
+     */
+    public static class CategorizedPost {
+        private Long id;
+        private String title;
+        private String categoryName;
+
+        public CategorizedPost() {
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public void setTitle(String title) {
+            this.title = title;
+        }
+
+        public String getCategoryName() {
+            return categoryName;
+        }
+
+        public void setCategoryName(String categoryName) {
+            this.categoryName = categoryName;
+        }
+    }
+
+    @Test
+    @Order(24)
+    @DisplayName("ProjectionQuery - Entities whose projected association is null are still read")
+    void testProjectionThroughNullAssociation(@Autowired EntityManager entityManager,
+                                              @Autowired PlatformTransactionManager transactionManager) {
+        // An author of no other post, so that only the two posts below match
+        Long authorId = -userId;
+        Long[] postIds = new TransactionTemplate(transactionManager).execute(status -> {
+            Category category = new Category("Announcements");
+            entityManager.persist(category);
+            Post categorized = new Post("Categorized post", "Content", authorId, "published");
+            categorized.setCategory(category);
+            Post uncategorized = new Post("Uncategorized post", "Content", authorId, "published");
+            entityManager.persist(categorized);
+            entityManager.persist(uncategorized);
+            return new Long[]{categorized.getId(), uncategorized.getId()};
+        });
+        assertNotNull(postIds);
+
+        ProjectionQuery<Post, CategorizedPost> projectionQuery = new ProjectionQuery<>(entityManager,
+                DtoProjection.of(Post.class, CategorizedPost.class)
+                        .field("id")
+                        .field("title")
+                        .field("categoryName", "category.name"));
+        Specification<Post> byAuthor = (root, query, criteriaBuilder) ->
+                criteriaBuilder.equal(root.get("userId"), authorId);
+
+        for (Sort sort : List.of(Sort.by("id"), Sort.by("categoryName", "id"))) {
+            List<CategorizedPost> posts = projectionQuery.findSlice(byAuthor, PageRequest.of(0, 10, sort)).getContent();
+            assertEquals(2, posts.size(), sort.toString());
+            Map<Long, String> categories = new HashMap<>();
+            posts.forEach(post -> categories.put(post.getId(), post.getCategoryName()));
+            assertEquals("Announcements", categories.get(postIds[0]));
+            assertTrue(categories.containsKey(postIds[1]));
+            assertNull(categories.get(postIds[1]));
+        }
+
+        CategorizedPost uncategorized = projectionQuery.findById(postIds[1]).orElseThrow();
+        assertEquals("Uncategorized post", uncategorized.getTitle());
+        assertNull(uncategorized.getCategoryName());
+        assertEquals(2, projectionQuery.findAllById(List.of(postIds[0], postIds[1])).size());
+    }
+}
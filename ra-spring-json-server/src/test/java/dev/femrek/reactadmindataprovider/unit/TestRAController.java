@@ -1,17 +1,33 @@
 package dev.femrek.reactadmindataprovider.unit;
 
+import dev.femrek.reactadmindataprovider.jpa.BulkDeleteQuery;
+import dev.femrek.reactadmindataprovider.jpa.ConcurrentPageQuery;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
 import okhttp3.*;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import tools.jackson.databind.ObjectMapper;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -705,5 +721,364 @@ class TestRAController {
             assertEquals(400, response.code());
         }
     }
-}
 
+    @Test
+    @Order(22)
+    @DisplayName("PUT /api/users?id=2&id=99999 - Bulk update returns only the ids that exist")
+    void testUpdateManyLeavesOutMissingIds() throws IOException {
+        Map<String, String> updates = new HashMap<>();
+        updates.put("role", "bulk_user");
+
+        HttpUrl url = baseHttpUrl().newBuilder()
+                .addQueryParameter("id", createdUserId2.toString())
+                .addQueryParameter("id", "99999")
+                .build();
+
+        RequestBody body = RequestBody.create(objectMapper.writeValueAsString(updates), JSON);
+        try (Response response = client.newCall(new Request.Builder().url(url).put(body).build()).execute()) {
+            assertEquals(200, response.code());
+            assertNotNull(response.body());
+
+            List<Number> responseBody = objectMapper.readValue(
+                    response.body().string(),
+                    objectMapper.getTypeFactory().constructCollectionType(List.class, Number.class)
+            );
+            assertEquals(List.of(createdUserId2), responseBody.stream().map(Number::longValue).toList());
+        }
+
+        try (Response response = client.newCall(new Request.Builder().url(baseUrl() + "/" + createdUserId2).get().build()).execute()) {
+            assertNotNull(response.body());
+            @SuppressWarnings("unchecked")
+            Map<String, Object> user = objectMapper.readValue(response.body().string(), Map.class);
+            assertEquals("bulk_user", user.get("role"));
+        }
+    }
+
+    @Test
+    @Order(23)
+    @DisplayName("DELETE /api/users?id=x&id=99999 - Bulk delete reports only the ids that were deleted")
+    void testDeleteManyReportsDeletedIds(@Autowired EntityManager entityManager) throws IOException {
+        // H2 reports the deleted ids from the delete statement, as PostgreSQL and MariaDB do with RETURNING
+        assertTrue(new BulkDeleteQuery<>(entityManager, User.class).isReturning());
+
+        Map<String, String> user = new HashMap<>();
+        user.put("name", "Reported Delete");
+        user.put("email", "reported.delete@example.com");
+        user.put("role", "user");
+
+        Long deleteId;
+        RequestBody createBody = RequestBody.create(objectMapper.writeValueAsString(user), JSON);
+        try (Response response = client.newCall(new Request.Builder().url(baseUrl()).post(createBody).build()).execute()) {
+            assertNotNull(response.body());
+            @SuppressWarnings("unchecked")
+            Map<String, Object> created = objectMapper.readValue(response.body().string(), Map.class);
+            deleteId = ((Number) created.get("id")).longValue();
+        }
+
+        HttpUrl url = baseHttpUrl().newBuilder()
+                .addQueryParameter("id", "99999")
+                .addQueryParameter("id", deleteId.toString())
+                .build();
+
+        try (Response response = client.newCall(new Request.Builder().url(url).delete().build()).execute()) {
+            assertEquals(200, response.code());
+            assertNotNull(response.body());
+
+            List<Number> responseBody = objectMapper.readValue(
+                    response.body().string(),
+                    objectMapper.getTypeFactory().constructCollectionType(List.class, Number.class)
+            );
+            assertEquals(List.of(deleteId), responseBody.stream().map(Number::longValue).toList());
+        }
+
+        try (Response response = client.newCall(new Request.Builder().url(baseUrl() + "/" + deleteId).get().build()).execute()) {
+            assertEquals(500, response.code());
+        }
+    }
+
+    @Test
+    @Order(24)
+    @DisplayName("GET /api/users/many - Ids above the largest IN list bucket are fetched in chunks")
+    void testGetManyAcrossChunks() throws IOException {
+        HttpUrl.Builder url = baseHttpUrl().newBuilder().addPathSegment("many");
+        for (int i = 0; i < 600; i++) {
+            url.addQueryParameter("id", String.valueOf(90_000 + i));
+        }
+        url.addQueryParameter("id", createdUserId1.toString())
+                .addQueryParameter("id", createdUserId2.toString())
+                .addQueryParameter("id", createdUserId3.toString());
+
+        try (Response response = client.newCall(new Request.Builder().url(url.build()).get().build()).execute()) {
+            assertEquals(200, response.code());
+            assertNotNull(response.body());
+
+            List<Map<String, Object>> responseBody = objectMapper.readValue(
+                    response.body().string(),
+                    objectMapper.getTypeFactory().constructCollectionType(List.class, Map.class)
+            );
+            assertEquals(3, responseBody.size());
+            List<Long> ids = responseBody.stream().map(user -> ((Number) user.get("id")).longValue()).toList();
+            assertTrue(ids.containsAll(List.of(createdUserId1, createdUserId2, createdUserId3)));
+        }
+    }
+
+    @Test
+    @Order(25)
+    @DisplayName("POST /api/users/createMany - Create users in batches, returned in input order")
+    void testCreateMany(@Autowired EntityManagerFactory entityManagerFactory) throws IOException {
+        int count = 10;
+        List<Map<String, String>> users = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            Map<String, String> user = new HashMap<>();
+            user.put("name", "Imported User " + i);
+            user.put("email", "imported.user" + i + "@example.com");
+            user.put("role", "user");
+            users.add(user);
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long inserts = statistics.getEntityInsertCount();
+        long statements = statistics.getPrepareStatementCount();
+
+        RequestBody body = RequestBody.create(objectMapper.writeValueAsString(users), JSON);
+        Request request = new Request.Builder().url(baseUrl() + "/createMany").post(body).build();
+
+        try (Response response = client.newCall(request).execute()) {
+            assertEquals(201, response.code());
+            assertNotNull(response.body());
+
+            List<Map<String, Object>> responseBody = objectMapper.readValue(
+                    response.body().string(),
+                    objectMapper.getTypeFactory().constructCollectionType(List.class, Map.class)
+            );
+            assertEquals(count, responseBody.size());
+            for (int i = 0; i < count; i++) {
+                assertNotNull(responseBody.get(i).get("id"));
+                assertEquals("Imported User " + (i + 1), responseBody.get(i).get("name"));
+            }
+
+            // UserService batches 2 inserts per statement; one more statement may read the id sequence
+            assertEquals(count, statistics.getEntityInsertCount() - inserts);
+            assertTrue(statistics.getPrepareStatementCount() - statements <= count / 2 + 1,
+                    "The inserts of createMany were not batched");
+
+            Long firstId = ((Number) responseBody.get(0).get("id")).longValue();
+            assertTrue(userRepository.findById(firstId).isPresent());
+        }
+    }
+
+    @Test
+    @Order(26)
+    @DisplayName("GET /api/users/{id} - Records are cached until a write through the controller")
+    void testGetOneCache() throws IOException {
+        Request getRequest = new Request.Builder().url(baseUrl() + "/" + createdUserId2).get().build();
+        String cachedName;
+        try (Response response = client.newCall(getRequest).execute()) {
+            assertEquals(200, response.code());
+            assertNotNull(response.body());
+            cachedName = (String) objectMapper.readValue(response.body().string(), Map.class).get("name");
+        }
+
+        // A write bypassing the controller is not seen while the record is cached
+        User user = userRepository.findById(createdUserId2).orElseThrow();
+        user.setName("Renamed Behind The Cache");
+        userRepository.save(user);
+        try (Response response = client.newCall(getRequest).execute()) {
+            assertEquals(200, response.code());
+            assertNotNull(response.body());
+            assertEquals(cachedName, objectMapper.readValue(response.body().string(), Map.class).get("name"));
+        }
+
+        // An update through the controller invalidates the record
+        RequestBody body = RequestBody.create(objectMapper.writeValueAsString(Map.of("role", "cached_user")), JSON);
+        Request updateRequest = new Request.Builder().url(baseUrl() + "/" + createdUserId2).put(body).build();
+        try (Response response = client.newCall(updateRequest).execute()) {
+            assertEquals(200, response.code());
+        }
+        try (Response response = client.newCall(getRequest).execute()) {
+            assertEquals(200, response.code());
+            assertNotNull(response.body());
+            Map<?, ?> user2 = objectMapper.readValue(response.body().string(), Map.class);
+            assertEquals("Renamed Behind The Cache", user2.get("name"));
+            assertEquals("cached_user", user2.get("role"));
+        }
+    }
+
+    @Test
+    @Order(27)
+    @DisplayName("GET /api/users/many - Cached records are served and only the missing ids are queried")
+    void testGetManyPartialCacheHit() throws IOException {
+        HttpUrl firstUrl = baseHttpUrl().newBuilder().addPathSegment("many")
+                .addQueryParameter("id", createdUserId1.toString())
+                .addQueryParameter("id", createdUserId3.toString())
+                .build();
+        String cachedName;
+        try (Response response = client.newCall(new Request.Builder().url(firstUrl).get().build()).execute()) {
+            assertEquals(200, response.code());
+            assertNotNull(response.body());
+            List<Map<String, Object>> users = objectMapper.readValue(
+                    response.body().string(),
+                    objectMapper.getTypeFactory().constructCollectionType(List.class, Map.class)
+            );
+            assertEquals(2, users.size());
+            cachedName = users.stream()
+                    .filter(user -> createdUserId3.equals(((Number) user.get("id")).longValue()))
+                    .map(user -> (String) user.get("name"))
+                    .findFirst()
+                    .orElseThrow();
+        }
+
+        // The cached record is served as it was, the missing one is read from the database
+        User user = userRepository.findById(createdUserId3).orElseThrow();
+        user.setName("Renamed Behind The Many Cache");
+        userRepository.save(user);
+        Long uncachedId = userRepository.save(new User("Uncached User", "uncached.user@example.com", "user")).getId();
+        HttpUrl secondUrl = firstUrl.newBuilder()
+                .addQueryParameter("id", uncachedId.toString())
+                .addQueryParameter("id", "99999")
+                .build();
+        try (Response response = client.newCall(new Request.Builder().url(secondUrl).get().build()).execute()) {
+            assertEquals(200, response.code());
+            assertNotNull(response.body());
+            List<Map<String, Object>> users = objectMapper.readValue(
+                    response.body().string(),
+                    objectMapper.getTypeFactory().constructCollectionType(List.class, Map.class)
+            );
+            assertEquals(3, users.size());
+            Map<Long, Object> namesById = new HashMap<>();
+            users.forEach(u -> namesById.put(((Number) u.get("id")).longValue(), u.get("name")));
+            assertEquals(cachedName, namesById.get(createdUserId3));
+            assertTrue(namesById.containsKey(createdUserId1));
+            assertEquals("Uncached User", namesById.get(uncachedId));
+        }
+    }
+
+    @Test
+    @Order(28)
+    @DisplayName("GET /api/users/of/role/user - getManyReference counts the total next to the page")
+    void testGetManyReferenceConcurrentCount() throws IOException {
+        long expected = userRepository.findAll().stream().filter(user -> "user".equals(user.getRole())).count();
+        assertTrue(expected > 1);
+
+        HttpUrl url = baseHttpUrl().newBuilder()
+                .addPathSegments("of/role/user")
+                .addQueryParameter("_start", "0")
+                .addQueryParameter("_end", "1")
+                .build();
+        try (Response response = client.newCall(new Request.Builder().url(url).get().build()).execute()) {
+            assertEquals(200, response.code());
+            assertEquals(String.valueOf(expected), response.header("X-Total-Count"));
+        }
+    }
+
+    @Test
+    @Order(29)
+    @DisplayName("ConcurrentPageQuery - Counts in a transaction like the caller's, or on the caller when not started")
+    void testConcurrentPageQueryTransactions(@Autowired EntityManager entityManager,
+                                             @Autowired PlatformTransactionManager transactionManager) {
+        long expected = userRepository.findAll().stream().filter(user -> "user".equals(user.getRole())).count();
+        Thread caller = Thread.currentThread();
+        AtomicBoolean countedReadOnly = new AtomicBoolean();
+        Specification<User> spec = (root, query, criteriaBuilder) -> {
+            if (Thread.currentThread() != caller) {
+                countedReadOnly.set(TransactionSynchronizationManager.isActualTransactionActive()
+                        && TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+            }
+            return criteriaBuilder.equal(root.get("role"), "user");
+        };
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        // The count runs on another thread, in a read-only transaction of its own
+        Executor otherThread = task -> {
+            Thread thread = new Thread(task);
+            thread.start();
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+        ConcurrentPageQuery<User> pageQuery =
+                new ConcurrentPageQuery<>(entityManager, User.class, userRepository, otherThread, transactionManager);
+        Page<User> page = readOnly.execute(status -> pageQuery.findAll(spec, PageRequest.of(0, 1)));
+        assertNotNull(page);
+        assertEquals(expected, page.getTotalElements());
+        assertTrue(countedReadOnly.get());
+
+        // A count the executor never starts, or rejects, runs on the calling thread
+        Executor neverStarts = task -> {
+        };
+        Executor rejects = task -> {
+            throw new RejectedExecutionException();
+        };
+        for (Executor executor : List.of(neverStarts, rejects)) {
+            ConcurrentPageQuery<User> inline =
+                    new ConcurrentPageQuery<>(entityManager, User.class, userRepository, executor, transactionManager);
+            Page<User> inlinePage = readOnly.execute(status -> inline.findAll(spec, PageRequest.of(0, 1)));
+            assertNotNull(inlinePage);
+            assertEquals(expected, inlinePage.getTotalElements());
+        }
+    }
+
+    @Test
+    @Order(30)
+    @DisplayName("GET /api/users?_fields=name - Only the requested fields and the id are selected")
+    void testSparseFieldset() throws IOException {
+        HttpUrl url = baseHttpUrl().newBuilder()
+                .addQueryParameter("_start", "0")
+                .addQueryParameter("_end", "3")
+                .addQueryParameter("_sort", "id")
+                .addQueryParameter("_order", "ASC")
+                .addQueryParameter("_fields", "name")
+                .build();
+
+        try (Response response = client.newCall(new Request.Builder().url(url).get().build()).execute()) {
+            assertEquals(200, response.code());
+            assertNotNull(response.body());
+
+            @SuppressWarnings("unchecked")
+            List<Map<String, Object>> users = objectMapper.readValue(response.body().string(), List.class);
+            assertEquals(3, users.size());
+            for (Map<String, Object> user : users) {
+                assertNotNull(user.get("id"));
+                assertNotNull(user.get("name"));
+                assertNull(user.get("email"));
+                assertNull(user.get("role"));
+            }
+        }
+    }
+
+    @Test
+    @Order(31)
+    @DisplayName("GET /api/users?_sort=nmae - Unknown sort fields of an unrestricted resource return bad request")
+    void testSortByUnknownField() throws IOException {
+        List<HttpUrl> urls = List.of(
+                baseHttpUrl().newBuilder()
+                        .addQueryParameter("_start", "0")
+                        .addQueryParameter("_end", "3")
+                        .addQueryParameter("_sort", "nmae")
+                        .addQueryParameter("_order", "ASC")
+                        .build(),
+                baseHttpUrl().newBuilder()
+                        .addQueryParameter("_start", "0")
+                        .addQueryParameter("_end", "3")
+                        .addQueryParameter("_sort", "nmae")
+                        .addQueryParameter("_order", "ASC")
+                        .addQueryParameter("_after", "")
+                        .build(),
+                baseHttpUrl().newBuilder()
+                        .addPathSegments("of/role/user")
+                        .addQueryParameter("_start", "0")
+                        .addQueryParameter("_end", "3")
+                        .addQueryParameter("_sort", "nmae")
+                        .addQueryParameter("_order", "ASC")
+                        .build());
+
+        for (HttpUrl url : urls) {
+            try (Response response = client.newCall(new Request.Builder().url(url).get().build()).execute()) {
+                assertEquals(400, response.code(), url.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package dev.femrek.reactadmindataprovider.unit;
+
+import dev.femrek.reactadmindataprovider.cache.SingleFlight;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link SingleFlight}, with latches ordering the concurrent calls.
+ */
+class TestSingleFlight {
+    private static final int DUPLICATES = 7;
+
+    /**
+     * A key equal to the other keys of the same name, telling when a later call compares it to the key in flight.
+     */
+    private static final class Key {
+        private final String name;
+        private final CountDownLatch compared;
+
+        private Key(String name, CountDownLatch compared) {
+            this.name = name;
+            this.compared = compared;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key key)) {
+                return false;
+            }
+            compared.countDown();
+            return name.equals(key.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return name.hashCode();
+        }
+    }
+
+    @Test
+    @DisplayName("Concurrent identical calls share a single call in flight")
+    void testCoalescesConcurrentCalls() throws Exception {
+        SingleFlight singleFlight = SingleFlight.create();
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch joined = new CountDownLatch(DUPLICATES);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(DUPLICATES + 1);
+        try {
+            Future<Integer> first = executor.submit(() -> singleFlight.execute(new Key("query", joined), () -> {
+                calls.incrementAndGet();
+                running.countDown();
+                await(release);
+                return 42;
+            }));
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+
+            // Every duplicate finds the call in flight, which cannot complete before the release
+            List<Future<Integer>> duplicates = new ArrayList<>();
+            for (int i = 0; i < DUPLICATES; i++) {
+                duplicates.add(executor.submit(() -> singleFlight.execute(new Key("query", joined),
+                        calls::incrementAndGet)));
+            }
+            assertTrue(joined.await(5, TimeUnit.SECONDS));
+            release.countDown();
+
+            assertEquals(42, first.get(5, TimeUnit.SECONDS));
+            for (Future<Integer> duplicate : duplicates) {
+                assertEquals(42, duplicate.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+        assertEquals(1, calls.get());
+        assertEquals(0, singleFlight.size());
+        assertEquals(0, singleFlight.waiting());
+
+        // Nothing is kept once the call completes
+        Integer next = singleFlight.execute("query", calls::incrementAndGet);
+        assertEquals(2, next);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    @DisplayName("The exception of a call is thrown to the calls that waited for it")
+    void testSharesException() throws Exception {
+        SingleFlight singleFlight = SingleFlight.create();
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch joined = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> first = executor.submit(() -> singleFlight.execute(new Key("query", joined), () -> {
+                running.countDown();
+                await(release);
+                throw new IllegalStateException("failed");
+            }));
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+            Future<Integer> duplicate = executor.submit(() -> singleFlight.execute(new Key("query", joined),
+                    () -> 42));
+            assertTrue(joined.await(5, TimeUnit.SECONDS));
+            release.countDown();
+
+            for (Future<Integer> result : List.of(first, duplicate)) {
+                Exception e = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+                assertInstanceOf(IllegalStateException.class, e.getCause());
+                assertEquals("failed", e.getCause().getMessage());
+            }
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+        assertEquals(0, singleFlight.size());
+    }
+
+    @Test
+    @DisplayName("Cleared calls in flight are not joined by later calls")
+    void testClearDetachesCallsInFlight() throws Exception {
+        SingleFlight singleFlight = SingleFlight.create();
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> first = executor.submit(() -> singleFlight.execute("query", () -> {
+                running.countDown();
+                await(release);
+                return 1;
+            }));
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+            singleFlight.clear();
+
+            assertEquals(2, singleFlight.execute("query", () -> 2));
+            release.countDown();
+            assertEquals(1, first.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+        assertEquals(0, singleFlight.size());
+    }
+
+    @Test
+    @DisplayName("A disabled instance runs every call")
+    void testDisabled() {
+        AtomicInteger calls = new AtomicInteger();
+        SingleFlight disabled = SingleFlight.disabled();
+        assertFalse(disabled.isEnabled());
+        assertEquals(1, disabled.execute("query", calls::incrementAndGet));
+        assertEquals(2, disabled.execute("query", calls::incrementAndGet));
+        assertEquals(0, disabled.size());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,15 +1,12 @@
 package dev.femrek.reactadmindataprovider.unit;
 
+import dev.femrek.reactadmindataprovider.jpa.PooledIdEntity;
 import jakarta.persistence.*;
 
 @Entity
 @Table(name = "users")
 @SuppressWarnings("unused")
-class User {
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
-
+class User extends PooledIdEntity {
     @Column(nullable = false)
     private String name;
 
@@ -27,14 +24,6 @@ class User {
         this.role = role;
     }
 
-    public Long getId() {
-        return id;
-    }
-
-    public void setId(Long id) {
-        this.id = id;
-    }
-
     public String getName() {
         return name;
     }
@@ -1,5 +1,6 @@
 package dev.femrek.reactadmindataprovider.unit;
 
+import dev.femrek.reactadmindataprovider.cache.RecordCache;
 import dev.femrek.reactadmindataprovider.controller.RAController;
 import dev.femrek.reactadmindataprovider.service.IRAService;
 import org.apache.commons.logging.Log;
@@ -9,6 +10,7 @@ import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
@@ -23,6 +25,7 @@ import java.util.Map;
 class UserController extends RAController<UserResponseDTO, UserCreateDTO, Long> {
     private static final Log log = LogFactory.getLog(UserController.class);
     private final UserService userServiceJSExtended;
+    private final RecordCache<UserResponseDTO> recordCache = RecordCache.of(100, Duration.ofSeconds(30));
 
     public UserController(UserService userServiceJSExtended) {
         this.userServiceJSExtended = userServiceJSExtended;
@@ -33,6 +36,11 @@ class UserController extends RAController<UserResponseDTO, UserCreateDTO, Long>
         return userServiceJSExtended;
     }
 
+    @Override
+    protected RecordCache<UserResponseDTO> getRecordCache() {
+        return recordCache;
+    }
+
     @Override
     public ResponseEntity<List<UserResponseDTO>> getList(int _start, int _end, String _sort, String _order, String _embed, Map<String, String> allParams) {
         log.info("Received getList request with params: " + allParams);